@@ -0,0 +1,41 @@
+package com.automarket.bench;
+
+import com.automarket.domain.Car;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic listings shaped like production rows (long image URLs, ~300 char descriptions).
+ */
+final class BenchData {
+
+    static final String[] MAKES = {
+        "Toyota", "BMW", "Audi", "Volkswagen", "Mercedes-Benz", "Skoda", "Ford", "Kia"
+    };
+
+    private BenchData() {
+    }
+
+    static List<Car> cars(int n) {
+        Random rnd = new Random(42);
+        OffsetDateTime now = OffsetDateTime.now();
+        List<Car> cars = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Car c = new Car();
+            c.setId((long) i + 1);
+            c.setMake(MAKES[rnd.nextInt(MAKES.length)]);
+            c.setModel("Model " + rnd.nextInt(50));
+            c.setYear(1995 + rnd.nextInt(30));
+            c.setPriceEur(1_000 + rnd.nextInt(80_000));
+            c.setImageUrl("https://images.unsplash.com/photo-1549923746-c502d488b3ea?ixlib=rb-4.0.3&w=2400&q=80&id=" + i);
+            c.setDescription(("Well kept, full service history, two owners, winter tyres included. ").repeat(4));
+            c.setSellerUid("seller-" + rnd.nextInt(500));
+            c.setCreatedAt(now.minusMinutes(i));
+            cars.add(c);
+        }
+        return cars;
+    }
+}
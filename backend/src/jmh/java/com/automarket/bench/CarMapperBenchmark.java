@@ -0,0 +1,43 @@
+package com.automarket.bench;
+
+import com.automarket.domain.Car;
+import com.automarket.service.CarMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CarMapperBenchmark {
+
+    @Param({"20", "100", "2000"})
+    public int pageSize;
+
+    private final CarMapper mapper = new CarMapper("/api/media");
+    private List<Car> cars;
+
+    @Setup
+    public void setup() {
+        cars = BenchData.cars(pageSize);
+    }
+
+    @Benchmark
+    public void toDto(Blackhole bh) {
+        for (Car c : cars) {
+            bh.consume(mapper.toDto(c));
+        }
+    }
+
+    @Benchmark
+    public void toSummary(Blackhole bh) {
+        for (Car c : cars) {
+            bh.consume(mapper.toSummary(c));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.automarket.bench;
+
+import com.automarket.dto.CarDto;
+import com.automarket.dto.CarSummaryDto;
+import com.automarket.dto.PageDto;
+import com.automarket.service.CarMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of the list response body, configured like Boot's default ObjectMapper:
+ * the old {@code PageImpl} body against {@link PageDto} in JSON, Smile and CBOR.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CarPageSerializationBenchmark {
+
+    @Param({"20", "100", "2000"})
+    public int pageSize;
+
+    private ObjectMapper json;
+    private ObjectMapper smile;
+    private ObjectMapper cbor;
+    private Page<CarDto> fullPage;
+    private Page<CarSummaryDto> summaryPage;
+    private PageDto<CarSummaryDto> summaryDto;
+
+    @Setup
+    public void setup() {
+        json = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        smile = Jackson2ObjectMapperBuilder.smile()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        cbor = Jackson2ObjectMapperBuilder.cbor()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        var mapper = new CarMapper("/api/media");
+        var cars = BenchData.cars(pageSize);
+        var pageable = PageRequest.of(0, pageSize, Sort.by(Sort.Direction.DESC, "createdAt"));
+        fullPage = new PageImpl<>(cars.stream().map(mapper::toDto).toList(), pageable, 100_000);
+        summaryPage = new PageImpl<>(cars.stream().map(mapper::toSummary).toList(), pageable, 100_000);
+        summaryDto = PageDto.of(summaryPage);
+    }
+
+    @TearDown
+    public void sizes() throws Exception {
+        System.out.printf("%n[size=%d] bytes: PageImpl json %d, PageDto json %d, smile %d, cbor %d%n",
+            pageSize, json.writeValueAsBytes(summaryPage).length, json.writeValueAsBytes(summaryDto).length,
+            smile.writeValueAsBytes(summaryDto).length, cbor.writeValueAsBytes(summaryDto).length);
+    }
+
+    @Benchmark
+    public byte[] fullPage() throws Exception {
+        return json.writeValueAsBytes(fullPage);
+    }
+
+    @Benchmark
+    public byte[] summaryPage() throws Exception {
+        return json.writeValueAsBytes(summaryPage);
+    }
+
+    @Benchmark
+    public byte[] summaryPageDto() throws Exception {
+        return json.writeValueAsBytes(summaryDto);
+    }
+
+    @Benchmark
+    public byte[] summaryPageDtoSmile() throws Exception {
+        return smile.writeValueAsBytes(summaryDto);
+    }
+
+    @Benchmark
+    public byte[] summaryPageDtoCbor() throws Exception {
+        return cbor.writeValueAsBytes(summaryDto);
+    }
+}
@@ -0,0 +1,41 @@
+package com.automarket.bench;
+
+import com.automarket.domain.Car;
+import com.automarket.dto.CarFilter;
+import com.automarket.service.CarSpecifications;
+import com.automarket.service.SearchQuery;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request filter plumbing in CarService.findAll. SQL rendering and execution are
+ * covered end to end by {@link ListEndpointLoadTest}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CarSpecificationBenchmark {
+
+    private final CarFilter none = new CarFilter(null, null, null, null, null, null);
+    private final CarFilter all = new CarFilter("bmw", 2010, 2020, 5_000, 30_000, null);
+
+    @Benchmark
+    public Specification<Car> noFilters() {
+        return CarSpecifications.filter(none);
+    }
+
+    @Benchmark
+    public Specification<Car> allFilters() {
+        return CarSpecifications.filter(all);
+    }
+
+    @Benchmark
+    public String prefixTsQuery() {
+        return SearchQuery.toPrefixTsQuery("BMW 3 series touring diesel");
+    }
+}
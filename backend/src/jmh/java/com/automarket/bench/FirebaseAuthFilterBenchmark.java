@@ -0,0 +1,92 @@
+package com.automarket.bench;
+
+import com.automarket.security.CachingTokenVerifier;
+import com.automarket.security.FirebaseAuthFilter;
+import com.automarket.security.TokenVerifier;
+import com.automarket.security.VerifiedToken;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request auth overhead. The stand-in verifier does a real RS256 signature check
+ * (what the Firebase SDK pays per call) without touching the network.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FirebaseAuthFilterBenchmark {
+
+    private final FilterChain chain = (req, res) -> { };
+    private FirebaseAuthFilter uncached;
+    private FirebaseAuthFilter cached;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setup() throws Exception {
+        KeyPairGenerator gen = KeyPairGenerator.getInstance("RSA");
+        gen.initialize(2048);
+        KeyPair keys = gen.generateKeyPair();
+
+        String payload = "uid-42|SELLER|" + Instant.now().plusSeconds(3600).getEpochSecond();
+        Signature signer = Signature.getInstance("SHA256withRSA");
+        signer.initSign(keys.getPrivate());
+        signer.update(payload.getBytes(StandardCharsets.UTF_8));
+        var b64 = Base64.getUrlEncoder().withoutPadding();
+        String token = b64.encodeToString(payload.getBytes(StandardCharsets.UTF_8))
+            + "." + b64.encodeToString(signer.sign());
+
+        TokenVerifier rsa = new RsaTokenVerifier(keys.getPublic());
+        uncached = new FirebaseAuthFilter(rsa);
+        cached = new FirebaseAuthFilter(new CachingTokenVerifier(rsa, 10_000, Clock.systemUTC()));
+
+        request = new MockHttpServletRequest("POST", "/api/cars");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public void verifyEveryRequest() throws Exception {
+        uncached.doFilter(request, response, chain);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public void cachedVerification() throws Exception {
+        cached.doFilter(request, response, chain);
+        SecurityContextHolder.clearContext();
+    }
+
+    private record RsaTokenVerifier(PublicKey key) implements TokenVerifier {
+
+        @Override
+        public VerifiedToken verify(String idToken) throws Exception {
+            String[] parts = idToken.split("\\.");
+            byte[] payload = Base64.getUrlDecoder().decode(parts[0]);
+            Signature verifier = Signature.getInstance("SHA256withRSA");
+            verifier.initVerify(key);
+            verifier.update(payload);
+            if (!verifier.verify(Base64.getUrlDecoder().decode(parts[1]))) {
+                throw new IllegalArgumentException("bad signature");
+            }
+            String[] claims = new String(payload, StandardCharsets.UTF_8).split("\\|");
+            return new VerifiedToken(claims[0], claims[1], Instant.ofEpochSecond(Long.parseLong(claims[2])));
+        }
+    }
+}
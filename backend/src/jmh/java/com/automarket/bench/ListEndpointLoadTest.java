@@ -0,0 +1,346 @@
+package com.automarket.bench;
+
+import com.automarket.BackendApplication;
+import com.automarket.dto.CarCreateDto;
+import com.automarket.service.CarBulkService;
+import com.automarket.service.CarCursor;
+import com.automarket.service.CarService;
+import com.automarket.service.ListingIndexService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * End-to-end load harness: boots the real application against a throwaway PostgreSQL
+ * (Testcontainers), seeds it, and hammers the listing endpoints with concurrent clients,
+ * printing throughput and latency percentiles per scenario. Finishes with single vs. batched
+ * insert throughput through CarService.
+ * <p>
+ * Options: {@code --rows=N --concurrency=N --seconds=N --cache=true|false --l2=true|false
+ * --listing-index=true|false --bulk-rows=N --threads=platform|virtual|both}; any other {@code --key=value} is passed to the application
+ * (e.g. {@code --spring.datasource.hikari.maximum-pool-size=20}). With {@code --threads=both} the
+ * application is booted once per mode against the same database. In virtual mode a JFR stream
+ * counts {@code jdk.VirtualThreadPinned} events, so a blocking call inside a monitor shows up in
+ * the report rather than as an unexplained latency tail. {@code --l2} switches the Hibernate
+ * entity and query caches (on by default in the application) for before/after runs;
+ * {@code --listing-index} does the same for the in-memory catalogue index, which is rebuilt
+ * after seeding because the seed bypasses the outbox.
+ */
+public final class ListEndpointLoadTest {
+
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+
+    private ListEndpointLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new LinkedHashMap<>();
+        List<String> passthrough = new ArrayList<>();
+        for (String arg : args) {
+            String[] kv = arg.replaceFirst("^--", "").split("=", 2);
+            switch (kv[0]) {
+                case "rows", "concurrency", "seconds", "cache", "l2", "listing-index", "bulk-rows", "threads" -> opts.put(kv[0], kv.length > 1 ? kv[1] : "true");
+                default -> passthrough.add(arg);
+            }
+        }
+        int rows = Integer.parseInt(opts.getOrDefault("rows", "100000"));
+        int concurrency = Integer.parseInt(opts.getOrDefault("concurrency", "64"));
+        Duration duration = Duration.ofSeconds(Long.parseLong(opts.getOrDefault("seconds", "20")));
+        boolean cache = Boolean.parseBoolean(opts.getOrDefault("cache", "false"));
+        boolean l2 = Boolean.parseBoolean(opts.getOrDefault("l2", "true"));
+        boolean listingIndex = Boolean.parseBoolean(opts.getOrDefault("listing-index", "true"));
+        int bulkRows = Integer.parseInt(opts.getOrDefault("bulk-rows", "5000"));
+        String threads = opts.getOrDefault("threads", "platform");
+        List<Boolean> modes = switch (threads) {
+            case "platform" -> List.of(false);
+            case "virtual" -> List.of(true);
+            case "both" -> List.of(false, true);
+            default -> throw new IllegalArgumentException("--threads must be platform, virtual or both");
+        };
+
+        try (var pg = new PostgreSQLContainer<>("postgres:16-alpine")) {
+            pg.start();
+            List<String> appArgs = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + pg.getJdbcUrl(),
+                "--spring.datasource.username=" + pg.getUsername(),
+                "--spring.datasource.password=" + pg.getPassword(),
+                "--server.port=0",
+                "--firebase.enabled=false",
+                "--app.cache.enabled=" + cache,
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + l2,
+                "--spring.jpa.properties.hibernate.cache.use_query_cache=" + l2,
+                "--app.listing-index.enabled=" + listingIndex,
+                "--app.rate-limit.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.orm.jdbc.bind=WARN"
+            ));
+            appArgs.addAll(passthrough);
+
+            for (int m = 0; m < modes.size(); m++) {
+                boolean virtual = modes.get(m);
+                boolean last = m == modes.size() - 1;
+                List<String> modeArgs = new ArrayList<>(appArgs);
+                modeArgs.add("--spring.threads.virtual.enabled=" + virtual);
+                try (ConfigurableApplicationContext ctx =
+                         SpringApplication.run(BackendApplication.class, modeArgs.toArray(String[]::new));
+                     PinnedEvents pinned = virtual ? PinnedEvents.start() : null) {
+                    JdbcTemplate jdbc = ctx.getBean(JdbcTemplate.class);
+                    if (m == 0) {
+                        seed(jdbc, rows);
+                    }
+                    ctx.getBean(ListingIndexService.class).rebuild();
+
+                    int port = ((WebServerApplicationContext) ctx).getWebServer().getPort();
+                    String base = "http://localhost:" + port + "/api/cars";
+                    String deepCursor = cursorAt(jdbc, rows / 2);
+                    Long someId = jdbc.queryForObject("SELECT min(id) FROM car", Long.class);
+
+                    System.out.printf("%n%d rows, %d clients, %ss per scenario, cache=%s, l2=%s, index=%s, %s threads, args=%s%n",
+                        rows, concurrency, duration.toSeconds(), cache, l2, listingIndex, virtual ? "virtual" : "platform", passthrough);
+                    System.out.printf("%-26s %10s %9s %9s %9s %7s%n", "scenario", "req/s", "p50 ms", "p95 ms", "p99 ms", "errors");
+
+                    HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+                    Map<String, String> scenarios = new LinkedHashMap<>();
+                    scenarios.put("by id", base + "/" + someId);
+                    scenarios.put("similar", base + "/" + someId + "/similar?k=8");
+                    scenarios.put("first page", base + "?page=0&size=20&sort=createdAt,desc");
+                    scenarios.put("deep page (offset)", base + "?page=" + (rows / 40) + "&size=20&sort=createdAt,desc");
+                    scenarios.put("deep page (keyset)", base + "/scroll?size=20&after=" + deepCursor);
+                    scenarios.put("summary view", base + "?page=0&size=20&sort=createdAt,desc&view=summary");
+                    scenarios.put("filtered", base + "?make=bm&yearFrom=2010&priceTo=30000&size=20");
+                    scenarios.put("full-text search", base + "?q=" + URLEncoder.encode("model 1", StandardCharsets.UTF_8));
+                    scenarios.put("facets", base + "/facets?yearFrom=2005");
+                    for (var e : scenarios.entrySet()) {
+                        run(client, e.getKey(), URI.create(e.getValue()), concurrency, duration);
+                    }
+
+                    encodingComparison(client, URI.create(base + "?page=0&size=100&sort=createdAt,desc&view=summary"),
+                        concurrency, duration);
+
+                    if (pinned != null) {
+                        pinned.report();
+                    }
+                    // Вставки меняют данные, поэтому только в последнем прогоне
+                    if (last) {
+                        bulkComparison(ctx, bulkRows);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts virtual-thread pinning while the application is under load, grouped by the top
+     * application frame of the pinned stack.
+     */
+    private static final class PinnedEvents implements AutoCloseable {
+
+        private final RecordingStream stream = new RecordingStream();
+        private final Map<String, LongAdder> byFrame = new ConcurrentHashMap<>();
+
+        static PinnedEvents start() {
+            PinnedEvents events = new PinnedEvents();
+            events.stream.enable("jdk.VirtualThreadPinned").withStackTrace().withThreshold(Duration.ofMillis(1));
+            events.stream.onEvent("jdk.VirtualThreadPinned", e ->
+                events.byFrame.computeIfAbsent(topFrame(e), k -> new LongAdder()).increment());
+            events.stream.startAsync();
+            return events;
+        }
+
+        private static String topFrame(RecordedEvent event) {
+            if (event.getStackTrace() == null) {
+                return "<no stack>";
+            }
+            return event.getStackTrace().getFrames().stream()
+                .map(RecordedFrame::getMethod)
+                .filter(m -> !m.getType().getName().startsWith("java."))
+                .findFirst()
+                .map(m -> m.getType().getName() + "." + m.getName())
+                .orElse("<jdk>");
+        }
+
+        void report() {
+            long total = byFrame.values().stream().mapToLong(LongAdder::sum).sum();
+            System.out.printf("virtual thread pinned >1ms: %d%n", total);
+            byFrame.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue((a, b) -> Long.compare(b.sum(), a.sum())))
+                .limit(5)
+                .forEach(e -> System.out.printf("  %6d  %s%n", e.getValue().sum(), e.getKey()));
+        }
+
+        @Override
+        public void close() {
+            stream.close();
+        }
+    }
+
+    private static void seed(JdbcTemplate jdbc, int rows) {
+        jdbc.update("""
+            INSERT INTO car (make, model, year, price_eur, image_url, description, seller_uid, created_at)
+            SELECT (ARRAY['Toyota','BMW','Audi','Volkswagen','Mercedes-Benz','Skoda','Ford','Kia'])[1 + i % 8],
+                   'Model ' || (i % 50),
+                   1995 + i % 30,
+                   1000 + (i * 7919) % 80000,
+                   'https://images.example.com/cars/' || i || '.jpg',
+                   repeat('Well kept, full service history. ', 8),
+                   'seller-' || (i % 500),
+                   now() - make_interval(secs => i)
+            FROM generate_series(1, ?) AS i
+            """, rows);
+        jdbc.execute("ANALYZE car");
+    }
+
+    private static String cursorAt(JdbcTemplate jdbc, int offset) {
+        return jdbc.queryForObject(
+            "SELECT created_at, id FROM car ORDER BY created_at DESC, id DESC OFFSET ? LIMIT 1",
+            (rs, i) -> {
+                Map<String, Object> keys = new LinkedHashMap<>();
+                keys.put("createdAt", rs.getObject("created_at", OffsetDateTime.class));
+                keys.put("id", rs.getLong("id"));
+                return CarCursor.encode(CarCursor.parseSort("createdAt,desc"), keys);
+            },
+            offset);
+    }
+
+    private static void run(HttpClient client, String name, URI uri, int concurrency, Duration duration)
+        throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+        measure(client, request, concurrency, WARMUP);
+        Result r = measure(client, request, concurrency, duration);
+
+        long[] lat = r.latenciesNanos();
+        Arrays.sort(lat);
+        System.out.printf("%-26s %10.0f %9.2f %9.2f %9.2f %7d%n",
+            name,
+            lat.length / (double) duration.toSeconds(),
+            percentile(lat, 0.50), percentile(lat, 0.95), percentile(lat, 0.99),
+            r.errors());
+    }
+
+    /**
+     * Wire size and latency of one list page per response encoding. The client does not
+     * decode gzip, so the byte count is what crossed the socket.
+     */
+    private static void encodingComparison(HttpClient client, URI uri, int concurrency, Duration duration)
+        throws Exception {
+        Map<String, String[]> encodings = new LinkedHashMap<>();
+        encodings.put("json", new String[]{"Accept", "application/json"});
+        encodings.put("json+gzip", new String[]{"Accept", "application/json", "Accept-Encoding", "gzip"});
+        encodings.put("smile", new String[]{"Accept", "application/x-jackson-smile"});
+        encodings.put("cbor", new String[]{"Accept", "application/cbor"});
+
+        System.out.printf("%n%-26s %10s %10s %9s %9s%n", "encoding (100 rows)", "bytes", "req/s", "p50 ms", "p99 ms");
+        for (var e : encodings.entrySet()) {
+            HttpRequest request = HttpRequest.newBuilder(uri).headers(e.getValue()).GET().build();
+            int bytes = client.send(request, HttpResponse.BodyHandlers.ofByteArray()).body().length;
+            measure(client, request, concurrency, WARMUP);
+            long[] lat = measure(client, request, concurrency, duration).latenciesNanos();
+            Arrays.sort(lat);
+            System.out.printf("%-26s %10d %10.0f %9.2f %9.2f%n", e.getKey(), bytes,
+                lat.length / (double) duration.toSeconds(), percentile(lat, 0.50), percentile(lat, 0.99));
+        }
+    }
+
+    private record Result(long[] latenciesNanos, long errors) {}
+
+    private static Result measure(HttpClient client, HttpRequest request, int concurrency, Duration duration)
+        throws Exception {
+        long end = System.nanoTime() + duration.toNanos();
+        LongAdder errors = new LongAdder();
+        List<Future<long[]>> workers = new ArrayList<>();
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.add(pool.submit(() -> {
+                    long[] buf = new long[4096];
+                    int n = 0;
+                    while (System.nanoTime() < end) {
+                        long t0 = System.nanoTime();
+                        HttpResponse<byte[]> res = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                        if (res.statusCode() != 200) {
+                            errors.increment();
+                        }
+                        if (n == buf.length) {
+                            buf = Arrays.copyOf(buf, n * 2);
+                        }
+                        buf[n++] = System.nanoTime() - t0;
+                    }
+                    return Arrays.copyOf(buf, n);
+                }));
+            }
+            long[] all = new long[0];
+            for (Future<long[]> w : workers) {
+                long[] part = w.get();
+                long[] merged = Arrays.copyOf(all, all.length + part.length);
+                System.arraycopy(part, 0, merged, all.length, part.length);
+                all = merged;
+            }
+            return new Result(all, errors.sum());
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int idx = (int) Math.min(sorted.length - 1, Math.round(p * (sorted.length - 1)));
+        return sorted[idx] / 1_000_000.0;
+    }
+
+    private static void bulkComparison(ConfigurableApplicationContext ctx, int n) {
+        CarService cars = ctx.getBean(CarService.class);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+            "bench-seller", null, List.of(new SimpleGrantedAuthority("ROLE_SELLER"))));
+
+        List<CarCreateDto> rows = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            rows.add(new CarCreateDto(BenchData.MAKES[i % BenchData.MAKES.length], "Bulk " + (i % 40),
+                2000 + i % 25, 2_000 + (i * 131) % 60_000,
+                "https://images.example.com/bulk/" + i + ".jpg", "Imported in bulk"));
+        }
+
+        long t0 = System.nanoTime();
+        for (CarCreateDto dto : rows) {
+            cars.create(dto);
+        }
+        double single = n / ((System.nanoTime() - t0) / 1e9);
+
+        t0 = System.nanoTime();
+        for (int from = 0; from < n; from += CarBulkService.BATCH_SIZE) {
+            cars.createAll(rows.subList(from, Math.min(n, from + CarBulkService.BATCH_SIZE)));
+        }
+        double batched = n / ((System.nanoTime() - t0) / 1e9);
+
+        System.out.printf("%ninsert %d rows: single create %.0f rows/s, createAll x%d %.0f rows/s (%.1fx)%n",
+            n, single, CarBulkService.BATCH_SIZE, batched, batched / single);
+        SecurityContextHolder.clearContext();
+    }
+}
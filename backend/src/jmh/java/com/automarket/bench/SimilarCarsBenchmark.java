@@ -0,0 +1,64 @@
+package com.automarket.bench;
+
+import com.automarket.dto.CarSummaryDto;
+import com.automarket.service.SimilarCarsIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Similar cars" lookups against the grid index at catalogue sizes well beyond today's.
+ * {@code upsert} measures the incremental maintenance cost of one write (a price change).
+ * <pre>
+ *   ./mvnw -Pbenchmarks test-compile exec:exec@jmh -Djmh.args="SimilarCars -jvmArgs -Xmx4g"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SimilarCarsBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int rows;
+
+    @Param({"8", "50"})
+    public int k;
+
+    private SimilarCarsIndex index;
+    private List<CarSummaryDto> cars;
+    private final Random rnd = new Random(7);
+    private long version;
+
+    @Setup
+    public void setup() {
+        // Русский коммент: без BenchData — миллион сущностей с описаниями не влезает в кучу
+        Random seed = new Random(42);
+        OffsetDateTime now = OffsetDateTime.now();
+        cars = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            cars.add(new CarSummaryDto((long) i + 1, BenchData.MAKES[seed.nextInt(BenchData.MAKES.length)],
+                "Model " + seed.nextInt(50), 1995 + seed.nextInt(30), 1_000 + seed.nextInt(80_000),
+                "https://img.example/" + i + ".jpg", null, now.minusMinutes(i), 0));
+        }
+        index = SimilarCarsIndex.build(cars);
+    }
+
+    @Benchmark
+    public List<CarSummaryDto> similarTo() {
+        return index.similarTo(1 + rnd.nextInt(rows), k).orElseThrow();
+    }
+
+    @Benchmark
+    public void upsert() {
+        CarSummaryDto c = cars.get(rnd.nextInt(rows));
+        index.upsert(new CarSummaryDto(c.id(), c.make(), c.model(), c.year(), 1_000 + rnd.nextInt(80_000),
+            c.imageUrl(), c.thumbnailUrl(), c.createdAt(), ++version));
+    }
+}
@@ -0,0 +1,189 @@
+package com.automarket.bench;
+
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+
+/**
+ * Cold-start harness for scale-to-zero: launches the packaged application as a fresh JVM
+ * against a throwaway PostgreSQL (Testcontainers), once per variant and run, and reports the
+ * time from process start until the readiness probe answers 200, and the latency of the first
+ * {@code GET /api/cars} after that.
+ * <p>
+ * Variants: the fat jar as built, the extracted jar, the extracted jar with the CDS archive, and
+ * additionally with {@code -Dspring.aot.enabled=true} when the jar contains AOT classes (all but
+ * the first need {@code ./mvnw -Pcds package}). Each variant gets one discarded warm-up run
+ * (the very first also applies the Flyway migrations).
+ * <p>
+ * Options: {@code --jar=PATH --cds-dir=DIR --runs=N --jvm="-Xmx512m ..."}; any other
+ * {@code --key=value} is passed to the application (e.g. {@code --spring.jpa.hibernate.ddl-auto=none}).
+ */
+public final class StartupBenchmark {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+    private static final String AOT_INITIALIZER = "com/automarket/BackendApplication__ApplicationContextInitializer.class";
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new LinkedHashMap<>();
+        List<String> passthrough = new ArrayList<>();
+        for (String arg : args) {
+            String[] kv = arg.replaceFirst("^--", "").split("=", 2);
+            switch (kv[0]) {
+                case "jar", "cds-dir", "runs", "jvm" -> opts.put(kv[0], kv.length > 1 ? kv[1] : "");
+                default -> passthrough.add(arg);
+            }
+        }
+        Path jar = Path.of(opts.getOrDefault("jar", "target/backend-0.0.1-SNAPSHOT.jar"));
+        Path cdsDir = Path.of(opts.getOrDefault("cds-dir", "target/cds"));
+        int runs = Integer.parseInt(opts.getOrDefault("runs", "5"));
+        List<String> jvm = opts.getOrDefault("jvm", "").isBlank()
+            ? List.of() : Arrays.asList(opts.get("jvm").trim().split("\\s+"));
+        if (!Files.exists(jar)) {
+            throw new IllegalArgumentException(jar + " not found; build it with ./mvnw package -DskipTests first");
+        }
+
+        Map<String, List<String>> variants = new LinkedHashMap<>();
+        variants.put("jar", List.of("-jar", jar.toString()));
+        Path extracted = cdsDir.resolve(jar.getFileName());
+        Path archive = cdsDir.resolve("application.jsa");
+        if (Files.exists(extracted)) {
+            variants.put("extracted", List.of("-jar", extracted.toString()));
+            if (Files.exists(archive)) {
+                variants.put("extracted + CDS", List.of("-XX:SharedArchiveFile=" + archive, "-jar", extracted.toString()));
+                if (hasAotClasses(extracted)) {
+                    variants.put("extracted + CDS + AOT", List.of("-XX:SharedArchiveFile=" + archive,
+                        "-Dspring.aot.enabled=true", "-jar", extracted.toString()));
+                }
+            }
+        } else {
+            System.out.println(extracted + " not found; only the plain jar is measured (build with -Pcds for the rest)");
+        }
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        try (var pg = new PostgreSQLContainer<>("postgres:16-alpine")) {
+            pg.start();
+            Map<String, String> env = Map.of(
+                "SPRING_PROFILES_ACTIVE", "prod",
+                "DATABASE_URL", pg.getJdbcUrl(),
+                "DB_USER", pg.getUsername(),
+                "DB_PASSWORD", pg.getPassword(),
+                "CORS_ORIGINS", "http://localhost");
+
+            System.out.printf("%n%d runs per variant, jvm=%s, args=%s%n", runs, jvm, passthrough);
+            System.out.printf("%-24s %12s %12s %14s %14s%n", "variant", "ready p50", "ready min", "1st req p50", "1st req max");
+            for (var v : variants.entrySet()) {
+                List<String> command = new ArrayList<>();
+                command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+                command.addAll(jvm);
+                command.addAll(v.getValue());
+                command.addAll(passthrough);
+
+                launch(client, command, env);
+                long[] ready = new long[runs];
+                long[] first = new long[runs];
+                for (int i = 0; i < runs; i++) {
+                    long[] r = launch(client, command, env);
+                    ready[i] = r[0];
+                    first[i] = r[1];
+                }
+                Arrays.sort(ready);
+                Arrays.sort(first);
+                System.out.printf("%-24s %10d ms %10d ms %12.1f ms %12.1f ms%n", v.getKey(),
+                    ready[runs / 2] / 1_000_000, ready[0] / 1_000_000,
+                    first[runs / 2] / 1e6, first[runs - 1] / 1e6);
+            }
+        }
+    }
+
+    /** One cold start; returns {nanos until ready, nanos of the first list request}. */
+    private static long[] launch(HttpClient client, List<String> command, Map<String, String> env)
+        throws IOException, InterruptedException {
+        int port = freePort();
+        File log = Files.createTempFile("startup-bench", ".log").toFile();
+        ProcessBuilder pb = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log);
+        pb.environment().putAll(env);
+        pb.environment().put("PORT", Integer.toString(port));
+        pb.environment().put("MANAGEMENT_PORT", Integer.toString(freePort()));
+
+        long started = System.nanoTime();
+        Process process = pb.start();
+        try {
+            URI readiness = URI.create("http://localhost:" + port + "/readyz");
+            long ready = -1;
+            while (System.nanoTime() - started < TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    break;
+                }
+                if (status(client, readiness) == 200) {
+                    ready = System.nanoTime() - started;
+                    break;
+                }
+                Thread.sleep(10);
+            }
+            if (ready < 0) {
+                throw new IllegalStateException("Application did not become ready, log: " + log
+                    + "\n" + String.join("\n", tail(log.toPath(), 30)));
+            }
+            long t0 = System.nanoTime();
+            int code = status(client, URI.create("http://localhost:" + port + "/api/cars?size=20"));
+            long first = System.nanoTime() - t0;
+            if (code != 200) {
+                throw new IllegalStateException("First request returned " + code + ", log: " + log);
+            }
+            log.delete();
+            return new long[] {ready, first};
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static int status(HttpClient client, URI uri) throws InterruptedException {
+        try {
+            return client.send(HttpRequest.newBuilder(uri).timeout(TIMEOUT).build(),
+                HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException ex) {
+            // Русский коммент: порт ещё не слушает
+            return -1;
+        }
+    }
+
+    private static boolean hasAotClasses(Path jar) throws IOException {
+        try (JarFile file = new JarFile(jar.toFile())) {
+            return file.getEntry(AOT_INITIALIZER) != null
+                || file.getEntry("BOOT-INF/classes/" + AOT_INITIALIZER) != null;
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static List<String> tail(Path file, int lines) throws IOException {
+        List<String> all = Files.readAllLines(file);
+        return all.subList(Math.max(0, all.size() - lines), all.size());
+    }
+}
@@ -0,0 +1,57 @@
+package com.automarket.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Read-through caches in front of CarService. Evictions are deferred until the writing
+ * transaction commits, so a reader can't re-cache a row that is about to change.
+ * Turn off with {@code app.cache.enabled=false}.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /** Single listings by id. */
+    public static final String CARS = "cars";
+    /** List pages and scroll slices, keyed by filter + paging. */
+    public static final String CAR_PAGES = "carPages";
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.enabled", havingValue = "true", matchIfMissing = true)
+    public CacheManager cacheManager(
+        @Value("${app.cache.cars.max-size:10000}") long carsMaxSize,
+        @Value("${app.cache.cars.ttl:5m}") Duration carsTtl,
+        @Value("${app.cache.pages.max-size:2000}") long pagesMaxSize,
+        @Value("${app.cache.pages.ttl:30s}") Duration pagesTtl
+    ) {
+        var manager = new CaffeineCacheManager();
+        manager.registerCustomCache(CARS, caffeine(carsMaxSize, carsTtl));
+        manager.registerCustomCache(CAR_PAGES, caffeine(pagesMaxSize, pagesTtl));
+        return new TransactionAwareCacheManagerProxy(manager);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.enabled", havingValue = "false")
+    public CacheManager noOpCacheManager() {
+        return new NoOpCacheManager();
+    }
+
+    private static com.github.benmanes.caffeine.cache.Cache<Object, Object> caffeine(long maxSize, Duration ttl) {
+        return Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+    }
+}
@@ -3,39 +3,85 @@ package com.automarket.config;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.FirebaseOptions;
+import com.google.firebase.auth.FirebaseAuth;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty; // ← ДОБАВЬ ЭТО
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.io.ByteArrayInputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
-
+/**
+ * Initializes the Firebase Admin SDK on a background thread, so decoding the credentials and
+ * Application Default Credentials lookups (a metadata-server round trip on GCP) do not hold up
+ * startup. The first token verification waits for it; a failure is logged, reported by the
+ * {@code firebase} health indicator and rethrown to every caller of {@link #auth()}.
+ */
 @Configuration
 @ConditionalOnProperty(name = "firebase.enabled", havingValue = "true")
 public class FirebaseConfig implements InitializingBean {
 
+    private static final Logger log = LoggerFactory.getLogger(FirebaseConfig.class);
+
     @Value("${firebase.credentials.base64:}")
     private String firebaseCredsBase64;
 
+    private final CompletableFuture<FirebaseAuth> auth = new CompletableFuture<>();
+
     @Override
-    public void afterPropertiesSet() throws Exception {
-        if (FirebaseApp.getApps().isEmpty()) {
-            GoogleCredentials creds;
-            if (firebaseCredsBase64 != null && !firebaseCredsBase64.isBlank()) {
-                var json = new String(Base64.getDecoder().decode(firebaseCredsBase64), StandardCharsets.UTF_8);
-                creds = GoogleCredentials.fromStream(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
-            } else {
-
-                creds = GoogleCredentials.getApplicationDefault();
+    public void afterPropertiesSet() {
+        Thread.ofVirtual().name("firebase-init").start(this::initialize);
+    }
+
+    /** The SDK entry point, blocking until initialization has finished. */
+    public FirebaseAuth auth() {
+        try {
+            return auth.join();
+        } catch (CompletionException ex) {
+            throw new IllegalStateException("Firebase initialization failed", ex.getCause());
+        }
+    }
+
+    @Bean
+    public HealthIndicator firebaseHealthIndicator() {
+        return () -> {
+            if (!auth.isDone()) {
+                return Health.unknown().withDetail("state", "initializing").build();
             }
-            FirebaseOptions options = FirebaseOptions.builder()
-                .setCredentials(creds)
-                .build();
-            FirebaseApp.initializeApp(options);
+            return auth.isCompletedExceptionally()
+                ? Health.down().withDetail("state", "failed").build()
+                : Health.up().build();
+        };
+    }
+
+    private void initialize() {
+        long started = System.nanoTime();
+        try {
+            FirebaseApp app = FirebaseApp.getApps().isEmpty()
+                ? FirebaseApp.initializeApp(FirebaseOptions.builder().setCredentials(credentials()).build())
+                : FirebaseApp.getInstance();
+            auth.complete(FirebaseAuth.getInstance(app));
+            log.info("Firebase initialized in {} ms", (System.nanoTime() - started) / 1_000_000);
+        } catch (Exception ex) {
+            log.error("Firebase initialization failed", ex);
+            auth.completeExceptionally(ex);
         }
+    }
 
+    private GoogleCredentials credentials() throws Exception {
+        if (firebaseCredsBase64 != null && !firebaseCredsBase64.isBlank()) {
+            var json = Base64.getDecoder().decode(firebaseCredsBase64);
+            return GoogleCredentials.fromStream(new ByteArrayInputStream(json));
+        }
+        return GoogleCredentials.getApplicationDefault();
     }
 }
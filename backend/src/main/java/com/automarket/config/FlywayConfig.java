@@ -0,0 +1,30 @@
+package com.automarket.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Re-checks {@code spring.flyway.enabled} when migrating. In JVM mode the property already
+ * switches Flyway's auto-configuration off; an AOT-processed build (profile {@code cds}) fixes
+ * that condition at build time, so without this FLYWAY_ENABLED=false would be ignored there.
+ */
+@Configuration
+public class FlywayConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(FlywayConfig.class);
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(@Value("${spring.flyway.enabled:true}") boolean enabled) {
+        return flyway -> {
+            if (enabled) {
+                flyway.migrate();
+            } else {
+                log.info("Flyway migrations skipped (spring.flyway.enabled=false)");
+            }
+        };
+    }
+}
@@ -0,0 +1,66 @@
+package com.automarket.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Primary/replica routing, active only when {@code app.datasource.replica.url} is set.
+ * Read-only transactions ({@code @Transactional(readOnly = true)}, Spring Data finders) mark their
+ * connection read-only before first use, and the lazy proxy then hands out a replica connection;
+ * everything else, including Flyway and schema validation, uses the primary pool.
+ */
+@Configuration
+@ConditionalOnExpression("!'${app.datasource.replica.url:}'.isEmpty()")
+public class ReadReplicaDataSourceConfig {
+
+    @Bean(destroyMethod = "close")
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource ds = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        ds.setPoolName("primary");
+        return ds;
+    }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource replicaDataSource(
+        DataSourceProperties primary,
+        @Value("${app.datasource.replica.url}") String url,
+        @Value("${app.datasource.replica.username:}") String username,
+        @Value("${app.datasource.replica.password:}") String password,
+        @Value("${app.datasource.replica.maximum-pool-size:10}") int maximumPoolSize,
+        @Value("${spring.datasource.hikari.connection-timeout:30000}") long connectionTimeout
+    ) {
+        HikariDataSource ds = new HikariDataSource();
+        ds.setPoolName("replica");
+        ds.setJdbcUrl(url);
+        ds.setUsername(username.isEmpty() ? primary.determineUsername() : username);
+        ds.setPassword(password.isEmpty() ? primary.determinePassword() : password);
+        ds.setMaximumPoolSize(maximumPoolSize);
+        ds.setConnectionTimeout(connectionTimeout);
+        ds.setReadOnly(true);
+        return ds;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+        @Qualifier("primaryDataSource") DataSource primaryDataSource,
+        @Qualifier("replicaDataSource") DataSource replicaDataSource
+    ) {
+        var routing = new LazyConnectionDataSourceProxy(primaryDataSource);
+        routing.setReadOnlyDataSource(replicaDataSource);
+        return routing;
+    }
+}
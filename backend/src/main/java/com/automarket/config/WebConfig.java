@@ -1,12 +1,26 @@
 package com.automarket.config;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.*;
 
+import java.util.List;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    // Русский коммент: builder из Boot (prototype) — те же модули и настройки дат, что и у JSON
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> mapperBuilder;
+
+    public WebConfig(ObjectProvider<Jackson2ObjectMapperBuilder> mapperBuilder) {
+        this.mapperBuilder = mapperBuilder;
+    }
+
 
     @Value("${app.cors.origins}")
     private String corsOrigins;
@@ -20,4 +34,13 @@ public class WebConfig implements WebMvcConfigurer {
             .allowedMethods("GET","POST","PUT","PATCH","DELETE","OPTIONS")
             .allowCredentials(true);
     }
+
+    /**
+     * Binary encodings for clients that ask for them via {@code Accept}; JSON stays the default.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new MappingJackson2SmileHttpMessageConverter(mapperBuilder.getObject().smile().build()));
+        converters.add(new MappingJackson2CborHttpMessageConverter(mapperBuilder.getObject().cbor().build()));
+    }
 }
@@ -1,15 +1,20 @@
 package com.automarket.domain;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.time.OffsetDateTime;
 
 // Русский коммент: JPA-сущность соответствует таблице car
 @Entity
 @Table(name = "car")
+@Cacheable
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "car")
 public class Car {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "car_id_seq")
+    @SequenceGenerator(name = "car_id_seq", sequenceName = "car_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 64)
@@ -33,6 +38,23 @@ public class Car {
     @Column(name = "description", columnDefinition = "text")
     private String description;
 
+    // Русский коммент: оптимистическая блокировка + основа для ETag
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    // Русский коммент: SHA-256 исходной картинки; null, пока превью не сгенерированы
+    @Column(name = "thumbnail_key", length = 64)
+    private String thumbnailKey;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt = OffsetDateTime.now();
+
+    @PreUpdate
+    void touch() {
+        updatedAt = OffsetDateTime.now();
+    }
+
     // region getters/setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -58,6 +80,14 @@ public class Car {
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
 
+    public long getVersion() { return version; }
+
+    public String getThumbnailKey() { return thumbnailKey; }
+    public void setThumbnailKey(String thumbnailKey) { this.thumbnailKey = thumbnailKey; }
+
+    public OffsetDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(OffsetDateTime updatedAt) { this.updatedAt = updatedAt; }
+
 
     @Column(name = "seller_uid", length = 64)
     private String sellerUid;
@@ -0,0 +1,64 @@
+package com.automarket.domain;
+
+import jakarta.persistence.*;
+import java.time.OffsetDateTime;
+
+// Русский коммент: сохранённый фильтр пользователя (те же поля, что у GET /api/cars)
+@Entity
+@Table(name = "saved_search")
+public class SavedSearch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "owner_uid", nullable = false, length = 64)
+    private String ownerUid;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @Column(length = 64)
+    private String make;
+
+    @Column(name = "year_from")
+    private Integer yearFrom;
+
+    @Column(name = "year_to")
+    private Integer yearTo;
+
+    @Column(name = "price_from")
+    private Integer priceFrom;
+
+    @Column(name = "price_to")
+    private Integer priceTo;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt = OffsetDateTime.now();
+
+    // region getters/setters
+    public Long getId() { return id; }
+
+    public String getOwnerUid() { return ownerUid; }
+    public void setOwnerUid(String ownerUid) { this.ownerUid = ownerUid; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getMake() { return make; }
+    public void setMake(String make) { this.make = make; }
+
+    public Integer getYearFrom() { return yearFrom; }
+    public void setYearFrom(Integer yearFrom) { this.yearFrom = yearFrom; }
+
+    public Integer getYearTo() { return yearTo; }
+    public void setYearTo(Integer yearTo) { this.yearTo = yearTo; }
+
+    public Integer getPriceFrom() { return priceFrom; }
+    public void setPriceFrom(Integer priceFrom) { this.priceFrom = priceFrom; }
+
+    public Integer getPriceTo() { return priceTo; }
+    public void setPriceTo(Integer priceTo) { this.priceTo = priceTo; }
+
+    public OffsetDateTime getCreatedAt() { return createdAt; }
+}
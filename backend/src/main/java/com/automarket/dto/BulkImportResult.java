@@ -0,0 +1,14 @@
+package com.automarket.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk upload. {@code errors} is capped; {@code rejected} counts every bad row.
+ */
+public record BulkImportResult(
+    long accepted,
+    long rejected,
+    List<RowError> errors
+) {
+    public record RowError(long line, String message) {}
+}
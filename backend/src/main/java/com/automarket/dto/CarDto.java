@@ -7,7 +7,10 @@ public record CarDto(
     int year,
     int priceEur,
     String imageUrl,
+    String thumbnailUrl,
     String description,
     String sellerUid,
-    java.time.OffsetDateTime createdAt
-) {}
+    java.time.OffsetDateTime createdAt,
+    long version,
+    java.time.OffsetDateTime updatedAt
+) implements Versioned {}
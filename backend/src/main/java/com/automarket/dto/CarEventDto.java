@@ -0,0 +1,12 @@
+package com.automarket.dto;
+
+/**
+ * Body of a listing change event. {@code car} is the state after the change (for DELETED,
+ * the last state); {@code previousPriceEur} is set only when an update changed the price.
+ */
+public record CarEventDto(
+    String type,
+    Long carId,
+    Integer previousPriceEur,
+    CarSummaryDto car
+) {}
@@ -0,0 +1,17 @@
+package com.automarket.dto;
+
+import java.util.List;
+
+/**
+ * Result counts per filter choice for the current filter set. Range bounds are inclusive;
+ * a {@code null} bound is open.
+ */
+public record CarFacetsDto(
+    List<ValueCount> makes,
+    List<RangeCount> years,
+    List<RangeCount> prices
+) {
+    public record ValueCount(String value, long count) {}
+
+    public record RangeCount(Integer from, Integer to, long count) {}
+}
@@ -0,0 +1,20 @@
+package com.automarket.dto;
+
+/**
+ * Optional listing filters shared by the page, scroll and facet queries.
+ * Blank text is normalized to {@code null} so equal filters compare equal.
+ * {@code q} is free text matched against make, model and description.
+ */
+public record CarFilter(
+    String make,
+    Integer yearFrom,
+    Integer yearTo,
+    Integer priceFrom,
+    Integer priceTo,
+    String q
+) {
+    public CarFilter {
+        make = (make == null || make.isBlank()) ? null : make.trim();
+        q = (q == null || q.isBlank()) ? null : q.trim();
+    }
+}
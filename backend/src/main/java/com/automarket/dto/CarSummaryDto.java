@@ -0,0 +1,16 @@
+package com.automarket.dto;
+
+/**
+ * Grid-view projection: selected straight from the table without the description text.
+ */
+public record CarSummaryDto(
+    Long id,
+    String make,
+    String model,
+    int year,
+    int priceEur,
+    String imageUrl,
+    String thumbnailUrl,
+    java.time.OffsetDateTime createdAt,
+    long version
+) implements Versioned {}
@@ -7,6 +7,6 @@ public record CarUpdateDto(
     @NotBlank String model,
     @Min(1950) @Max(2100) int year,
     @Min(0) int priceEur,
-    @NotBlank String imageUrl,
+    @NotBlank @ImageUrl String imageUrl,
     @Size(max = 2000) String description
 ) {}
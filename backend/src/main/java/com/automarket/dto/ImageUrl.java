@@ -0,0 +1,22 @@
+package com.automarket.dto;
+
+import com.automarket.media.ImageUrlValidator;
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * An absolute http(s) URL, or a URL returned by the media upload endpoint.
+ */
+@Target({ElementType.FIELD, ElementType.PARAMETER, ElementType.RECORD_COMPONENT})
+@Retention(RetentionPolicy.RUNTIME)
+@Constraint(validatedBy = ImageUrlValidator.class)
+public @interface ImageUrl {
+    String message() default "must be an http(s) image URL or an uploaded media URL";
+    Class<?>[] groups() default {};
+    Class<? extends Payload>[] payload() default {};
+}
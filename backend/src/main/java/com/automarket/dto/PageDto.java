@@ -0,0 +1,23 @@
+package com.automarket.dto;
+
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * Wire format of paged list responses. Only the fields clients use; {@code PageImpl} also
+ * serializes the whole {@code Pageable}/{@code Sort} graph and its shape is not stable
+ * across Spring Data versions.
+ */
+public record PageDto<T>(
+    List<T> content,
+    long totalElements,
+    int totalPages,
+    int size,
+    int number
+) {
+    public static <T> PageDto<T> of(Page<T> page) {
+        return new PageDto<>(page.getContent(), page.getTotalElements(), page.getTotalPages(),
+            page.getSize(), page.getNumber());
+    }
+}
@@ -0,0 +1,12 @@
+package com.automarket.dto;
+
+import jakarta.validation.constraints.*;
+
+public record SavedSearchCreateDto(
+    @NotBlank @Size(max = 100) String name,
+    @Size(max = 64) String make,
+    @Min(1950) @Max(2100) Integer yearFrom,
+    @Min(1950) @Max(2100) Integer yearTo,
+    @Min(0) Integer priceFrom,
+    @Min(0) Integer priceTo
+) {}
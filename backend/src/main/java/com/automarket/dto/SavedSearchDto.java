@@ -0,0 +1,12 @@
+package com.automarket.dto;
+
+public record SavedSearchDto(
+    Long id,
+    String name,
+    String make,
+    Integer yearFrom,
+    Integer yearTo,
+    Integer priceFrom,
+    Integer priceTo,
+    java.time.OffsetDateTime createdAt
+) {}
@@ -0,0 +1,11 @@
+package com.automarket.dto;
+
+/**
+ * A listing that matched one of the caller's saved searches; {@code car} is its current state.
+ */
+public record SavedSearchMatchDto(
+    Long searchId,
+    String searchName,
+    java.time.OffsetDateTime matchedAt,
+    CarSummaryDto car
+) {}
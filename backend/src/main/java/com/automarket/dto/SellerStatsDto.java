@@ -0,0 +1,15 @@
+package com.automarket.dto;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Aggregates over one seller's listings. Everything except {@code count} is {@code null}
+ * when the seller has no listings.
+ */
+public record SellerStatsDto(
+    long count,
+    Double averagePriceEur,
+    Integer minYear,
+    Integer maxYear,
+    OffsetDateTime newestCreatedAt
+) {}
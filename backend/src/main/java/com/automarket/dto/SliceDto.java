@@ -0,0 +1,13 @@
+package com.automarket.dto;
+
+import java.util.List;
+
+/**
+ * Keyset page: no total count, just the rows and an opaque cursor for the next call
+ * ({@code null} when there is nothing more to read).
+ */
+public record SliceDto<T>(
+    List<T> content,
+    boolean hasNext,
+    String next
+) {}
@@ -0,0 +1,11 @@
+package com.automarket.dto;
+
+/**
+ * A car representation that carries its row version (used for ETags).
+ */
+public interface Versioned {
+
+    Long id();
+
+    long version();
+}
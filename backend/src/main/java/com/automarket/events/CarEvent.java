@@ -0,0 +1,12 @@
+package com.automarket.events;
+
+/**
+ * A committed outbox row as held by the hub: filter fields plus the pre-serialized JSON body,
+ * so each event is encoded once no matter how many subscribers receive it.
+ */
+record CarEvent(long id, String type, String make, int priceEur, Integer previousPriceEur, String json) {
+
+    static final String CREATED = "CREATED";
+    static final String UPDATED = "UPDATED";
+    static final String DELETED = "DELETED";
+}
@@ -0,0 +1,155 @@
+package com.automarket.events;
+
+import com.automarket.dto.CarEventDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Polls {@code car_event} and hands committed rows to the hub.
+ * <p>
+ * Ids alone cannot be used as a cursor: a transaction holding a lower id may commit after one
+ * holding a higher id. Instead every row records the writing transaction id, and only rows of
+ * transactions older than the current snapshot's xmin are read — no transaction below that
+ * horizon can still commit, so each row is seen exactly once, in (tx_id, id) order.
+ * Every instance keeps its own cursor: the outbox is broadcast, not consumed. The cursor lives
+ * in memory and starts at the current horizon, so changes committed while no instance was
+ * running are never published; consumers that must see them persist their own position and
+ * catch up with {@link #replay}.
+ */
+@Component
+public class CarEventDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(CarEventDispatcher.class);
+
+    private final JdbcTemplate jdbc;
+    private final CarEventHub hub;
+    private final ApplicationEventPublisher publisher;
+    private final ObjectMapper json;
+    private final int batchSize;
+    private final Duration retention;
+
+    private String cursorTx;
+    private long cursorId;
+
+    public CarEventDispatcher(
+        JdbcTemplate jdbc,
+        CarEventHub hub,
+        ApplicationEventPublisher publisher,
+        ObjectMapper json,
+        @Value("${app.events.batch-size}") int batchSize,
+        @Value("${app.events.retention}") Duration retention
+    ) {
+        this.jdbc = jdbc;
+        this.hub = hub;
+        this.publisher = publisher;
+        this.json = json;
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.poll-interval}")
+    public void poll() {
+        if (cursorTx == null) {
+            // Русский коммент: стартуем с текущего горизонта — SSE-клиентам старые события не нужны
+            cursorTx = jdbc.queryForObject("SELECT pg_snapshot_xmin(pg_current_snapshot())::text", String.class);
+            cursorId = 0;
+        }
+        Batch batch;
+        do {
+            batch = fetch(cursorTx, cursorId);
+            cursorTx = batch.lastTx();
+            cursorId = batch.lastId();
+            if (!batch.events().isEmpty()) {
+                hub.publish(batch.events());
+                publisher.publishEvent(committed(batch));
+            }
+        } while (batch.events().size() == batchSize);
+    }
+
+    /**
+     * Hands every retained event after the given outbox position to {@code sink}, batch by
+     * batch, up to the current horizon. Only the caller sees them: nothing goes to the hub or
+     * to other listeners. Events older than {@code app.events.retention} are gone.
+     */
+    public void replay(String afterTx, long afterId, Consumer<CarEventsCommitted> sink) {
+        Batch batch;
+        do {
+            batch = fetch(afterTx, afterId);
+            afterTx = batch.lastTx();
+            afterId = batch.lastId();
+            if (!batch.events().isEmpty()) {
+                sink.accept(committed(batch));
+            }
+        } while (batch.events().size() == batchSize);
+    }
+
+    private record Batch(List<CarEvent> events, String lastTx, long lastId) {}
+
+    private Batch fetch(String afterTx, long afterId) {
+        String[] lastTx = {afterTx};
+        long[] lastId = {afterId};
+        List<CarEvent> events = jdbc.query("""
+            SELECT id, tx_id::text AS tx, type, make, price_eur, previous_price_eur, payload
+            FROM car_event
+            WHERE (tx_id, id) > (CAST(? AS text)::xid8, ?)
+              AND tx_id < pg_snapshot_xmin(pg_current_snapshot())
+            ORDER BY tx_id, id
+            LIMIT ?
+            """,
+            (rs, i) -> {
+                lastTx[0] = rs.getString("tx");
+                lastId[0] = rs.getLong("id");
+                return new CarEvent(
+                    rs.getLong("id"),
+                    rs.getString("type"),
+                    rs.getString("make"),
+                    rs.getInt("price_eur"),
+                    (Integer) rs.getObject("previous_price_eur"),
+                    rs.getString("payload"));
+            },
+            afterTx, afterId, batchSize);
+        return new Batch(events, lastTx[0], lastId[0]);
+    }
+
+    private CarEventsCommitted committed(Batch batch) {
+        return new CarEventsCommitted(parse(batch.events()), batch.lastTx(), batch.lastId());
+    }
+
+    private List<CarEventDto> parse(List<CarEvent> batch) {
+        try {
+            List<CarEventDto> out = new ArrayList<>(batch.size());
+            for (CarEvent e : batch) {
+                out.add(json.readValue(e.json(), CarEventDto.class));
+            }
+            return out;
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unreadable car_event payload", ex);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.heartbeat-interval}")
+    public void heartbeat() {
+        hub.heartbeat();
+    }
+
+    @Scheduled(fixedDelayString = "PT1H", initialDelayString = "PT1M")
+    public void purge() {
+        int deleted = jdbc.update("DELETE FROM car_event WHERE created_at < now() - CAST(? AS interval)",
+            retention.toSeconds() + " seconds");
+        if (deleted > 0) {
+            log.debug("Purged {} car events older than {}", deleted, retention);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.automarket.events;
+
+/**
+ * Subscriber filter with the same make semantics as the list endpoint (case-insensitive
+ * substring). An update matches if either the new or the previous price is in range,
+ * so subscribers also learn about listings that leave their range.
+ */
+public record CarEventFilter(String make, Integer priceFrom, Integer priceTo) {
+
+    public CarEventFilter {
+        make = (make == null || make.isBlank()) ? null : make.trim().toLowerCase();
+    }
+
+    boolean matches(CarEvent e) {
+        if (make != null && !e.make().toLowerCase().contains(make)) {
+            return false;
+        }
+        return inRange(e.priceEur()) || (e.previousPriceEur() != null && inRange(e.previousPriceEur()));
+    }
+
+    private boolean inRange(int price) {
+        return (priceFrom == null || price >= priceFrom) && (priceTo == null || price <= priceTo);
+    }
+}
@@ -0,0 +1,207 @@
+package com.automarket.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fans committed events out to SSE subscribers.
+ * <p>
+ * Publishing only enqueues: every subscriber has a bounded buffer drained by its own
+ * (virtual) thread, so a slow client never holds up the dispatcher or other clients. A
+ * subscriber whose buffer overflows is disconnected; its EventSource reconnects with
+ * {@code Last-Event-ID} and is replayed from the recent-events ring if still covered and
+ * the replay fits its buffer, otherwise it receives a {@code reset} event and should reload
+ * the list.
+ */
+@Component
+public class CarEventHub {
+
+    private static final CarEvent HEARTBEAT = new CarEvent(-1, "heartbeat", "", 0, null, "");
+
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final int replaySize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<CarEvent> recent = new ArrayDeque<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("sse-", 0).factory());
+    private final Counter delivered;
+    private final Counter overflowed;
+
+    public CarEventHub(
+        @Value("${app.events.subscriber-buffer}") int bufferSize,
+        @Value("${app.events.max-subscribers}") int maxSubscribers,
+        @Value("${app.events.replay-size}") int replaySize,
+        MeterRegistry registry
+    ) {
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.replaySize = replaySize;
+        this.delivered = registry.counter("car.events.delivered");
+        this.overflowed = registry.counter("car.events.subscribers.dropped", "reason", "overflow");
+        registry.gaugeCollectionSize("car.events.subscribers", List.of(), subscribers);
+    }
+
+    /**
+     * Registers a subscriber. Returns null when the server is at its subscriber limit.
+     */
+    public SseEmitter subscribe(CarEventFilter filter, Long lastEventId, long timeoutMillis) {
+        if (subscribers.size() >= maxSubscribers) {
+            return null;
+        }
+        SseEmitter emitter = newEmitter(timeoutMillis);
+        Subscriber sub = new Subscriber(emitter, filter, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> subscribers.remove(sub));
+        emitter.onTimeout(() -> close(sub));
+        emitter.onError(ex -> close(sub));
+
+        lock.lock();
+        try {
+            // Русский коммент: replay и регистрация под тем же локом, что и publish — без дублей и пропусков
+            if (lastEventId != null) {
+                List<CarEvent> missed = since(lastEventId);
+                List<CarEvent> replay = missed == null ? null : missed.stream().filter(filter::matches).toList();
+                // Не влезает в буфер — offer молча потерял бы хвост, пусть клиент перезагрузит список
+                if (replay == null || replay.size() > bufferSize) {
+                    sub.reset = true;
+                } else {
+                    replay.forEach(sub.queue::offer);
+                }
+            }
+            subscribers.add(sub);
+        } finally {
+            lock.unlock();
+        }
+        schedule(sub);
+        return emitter;
+    }
+
+    void publish(List<CarEvent> events) {
+        lock.lock();
+        try {
+            for (CarEvent e : events) {
+                recent.addLast(e);
+                if (recent.size() > replaySize) {
+                    recent.removeFirst();
+                }
+                for (Subscriber sub : subscribers) {
+                    if (sub.filter.matches(e) && !sub.queue.offer(e)) {
+                        overflowed.increment();
+                        close(sub);
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        subscribers.forEach(this::schedule);
+    }
+
+    /** Separate so tests can record what would go over the wire. */
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    /** Keeps idle connections alive through proxies and detects clients that went away. */
+    void heartbeat() {
+        for (Subscriber sub : subscribers) {
+            sub.queue.offer(HEARTBEAT);
+            schedule(sub);
+        }
+    }
+
+    /** Events after {@code lastEventId}, or null if that id is no longer in the ring. */
+    private List<CarEvent> since(long lastEventId) {
+        List<CarEvent> out = new ArrayList<>();
+        boolean found = false;
+        for (CarEvent e : recent) {
+            if (found) {
+                out.add(e);
+            } else if (e.id() == lastEventId) {
+                found = true;
+            }
+        }
+        return found ? out : null;
+    }
+
+    private void schedule(Subscriber sub) {
+        if (!sub.queue.isEmpty() || sub.reset) {
+            if (sub.draining.compareAndSet(false, true)) {
+                senders.execute(() -> drain(sub));
+            }
+        }
+    }
+
+    private void drain(Subscriber sub) {
+        try {
+            if (sub.reset) {
+                sub.reset = false;
+                sub.emitter.send(SseEmitter.event().name("reset").data("{}", MediaType.APPLICATION_JSON));
+            }
+            CarEvent e;
+            while ((e = sub.queue.poll()) != null) {
+                if (e == HEARTBEAT) {
+                    sub.emitter.send(SseEmitter.event().comment("hb"));
+                } else {
+                    sub.emitter.send(SseEmitter.event()
+                        .id(Long.toString(e.id()))
+                        .name(e.type())
+                        .data(e.json(), MediaType.APPLICATION_JSON));
+                    delivered.increment();
+                }
+            }
+        } catch (IOException | IllegalStateException ex) {
+            close(sub);
+            return;
+        } finally {
+            sub.draining.set(false);
+        }
+        // Событие могло прийти между последним poll и сбросом флага
+        schedule(sub);
+    }
+
+    private void close(Subscriber sub) {
+        if (subscribers.remove(sub)) {
+            sub.emitter.complete();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.forEach(this::close);
+        senders.shutdownNow();
+    }
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final CarEventFilter filter;
+        final BlockingQueue<CarEvent> queue;
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean reset;
+
+        Subscriber(SseEmitter emitter, CarEventFilter filter, BlockingQueue<CarEvent> queue) {
+            this.emitter = emitter;
+            this.filter = filter;
+            this.queue = queue;
+        }
+    }
+}
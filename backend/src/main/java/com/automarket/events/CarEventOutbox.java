@@ -0,0 +1,69 @@
+package com.automarket.events;
+
+import com.automarket.dto.CarEventDto;
+import com.automarket.dto.CarSummaryDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Writes change events into {@code car_event} inside the caller's transaction, so an event
+ * exists if and only if the change it describes was committed.
+ */
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class CarEventOutbox {
+
+    private static final String INSERT =
+        "INSERT INTO car_event (car_id, type, make, price_eur, previous_price_eur, payload) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbc;
+    private final ObjectMapper json;
+
+    public CarEventOutbox(JdbcTemplate jdbc, ObjectMapper json) {
+        this.jdbc = jdbc;
+        this.json = json;
+    }
+
+    public void created(CarSummaryDto car) {
+        append(CarEvent.CREATED, car, null);
+    }
+
+    public void createdAll(List<CarSummaryDto> cars) {
+        jdbc.batchUpdate(INSERT, cars, cars.size(), (ps, car) -> {
+            ps.setLong(1, car.id());
+            ps.setString(2, CarEvent.CREATED);
+            ps.setString(3, car.make());
+            ps.setInt(4, car.priceEur());
+            ps.setNull(5, Types.INTEGER);
+            ps.setString(6, payload(CarEvent.CREATED, car, null));
+        });
+    }
+
+    public void updated(CarSummaryDto car, int previousPriceEur) {
+        append(CarEvent.UPDATED, car, previousPriceEur != car.priceEur() ? previousPriceEur : null);
+    }
+
+    public void deleted(CarSummaryDto car) {
+        append(CarEvent.DELETED, car, null);
+    }
+
+    private void append(String type, CarSummaryDto car, Integer previousPriceEur) {
+        jdbc.update(INSERT, car.id(), type, car.make(), car.priceEur(), previousPriceEur,
+            payload(type, car, previousPriceEur));
+    }
+
+    private String payload(String type, CarSummaryDto car, Integer previousPriceEur) {
+        try {
+            return json.writeValueAsString(new CarEventDto(type, car.id(), previousPriceEur, car));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.automarket.events;
+
+import com.automarket.dto.CarEventDto;
+
+import java.util.List;
+
+/**
+ * Application event with a batch of committed outbox events, in commit order. Published by
+ * the dispatcher on every instance, so listeners must tolerate seeing an event more than once.
+ * {@code lastTxId} and {@code lastEventId} give the outbox position of the last event, for
+ * listeners that persist how far they got (see {@link CarEventDispatcher#replay}).
+ */
+public record CarEventsCommitted(List<CarEventDto> events, String lastTxId, long lastEventId) {}
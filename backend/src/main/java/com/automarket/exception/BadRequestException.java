@@ -0,0 +1,16 @@
+package com.automarket.exception;
+
+/**
+ * Client input that cannot be parsed or is out of range; mapped to 400 with its message, so the
+ * message must be safe to show. Other {@link IllegalArgumentException}s are bugs and answer 500.
+ */
+public class BadRequestException extends IllegalArgumentException {
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+
+    public BadRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -2,7 +2,11 @@ package com.automarket.exception;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.*;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
 
@@ -12,6 +16,8 @@ import java.util.*;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiError> handleValidation(MethodArgumentNotValidException ex,
                                                      HttpServletRequest req) {
@@ -62,8 +68,65 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(body);
     }
 
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<ApiError> handleBadRequest(BadRequestException ex,
+                                                     HttpServletRequest req) {
+        var body = new ApiError(
+            "BadRequest",
+            ex.getMessage(),
+            HttpStatus.BAD_REQUEST.value(),
+            req.getRequestURI(),
+            OffsetDateTime.now(),
+            null
+        );
+        return ResponseEntity.badRequest().body(body);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ApiError> handlePrecondition(PreconditionFailedException ex,
+                                                       HttpServletRequest req) {
+        var body = new ApiError(
+            "PreconditionFailed",
+            ex.getMessage(),
+            HttpStatus.PRECONDITION_FAILED.value(),
+            req.getRequestURI(),
+            OffsetDateTime.now(),
+            null
+        );
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(body);
+    }
+
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<ApiError> handleForbidden(AccessDeniedException ex,
+                                                    HttpServletRequest req) {
+        var body = new ApiError(
+            "Forbidden",
+            ex.getMessage(),
+            HttpStatus.FORBIDDEN.value(),
+            req.getRequestURI(),
+            OffsetDateTime.now(),
+            null
+        );
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(body);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiError> handleConflict(OptimisticLockingFailureException ex,
+                                                   HttpServletRequest req) {
+        var body = new ApiError(
+            "Conflict",
+            "Resource was modified concurrently",
+            HttpStatus.CONFLICT.value(),
+            req.getRequestURI(),
+            OffsetDateTime.now(),
+            null
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiError> handleAny(Exception ex, HttpServletRequest req) {
+        log.error("Unhandled error on {} {}", req.getMethod(), req.getRequestURI(), ex);
         var body = new ApiError(
             "InternalError",
             "Unexpected error",
@@ -0,0 +1,11 @@
+package com.automarket.exception;
+
+/**
+ * The client's {@code If-Match} no longer matches the stored version.
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
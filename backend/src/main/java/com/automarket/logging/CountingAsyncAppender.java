@@ -0,0 +1,38 @@
+package com.automarket.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link AsyncAppender} that never blocks the logging thread and counts what it throws away:
+ * below the discarding threshold events of INFO and lower are dropped, and on a full queue
+ * everything is. The count is exported as {@code logging.async.dropped}.
+ */
+public class CountingAsyncAppender extends AsyncAppender {
+
+    private final LongAdder dropped = new LongAdder();
+
+    @Override
+    public void start() {
+        setNeverBlock(true);
+        super.start();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        // Та же проверка, что в AsyncAppenderBase; offer() между ней и вставкой может
+        // отбросить событие без учёта, но это редкая гонка на полной очереди
+        int remaining = getRemainingCapacity();
+        if (remaining == 0 || (remaining < getDiscardingThreshold() && isDiscardable(event))) {
+            dropped.increment();
+            return;
+        }
+        super.append(event);
+    }
+
+    public long droppedCount() {
+        return dropped.sum();
+    }
+}
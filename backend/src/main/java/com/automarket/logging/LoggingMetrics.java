@@ -0,0 +1,48 @@
+package com.automarket.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the cost controls of logback-spring.xml: events dropped by the async appenders,
+ * their queue depth, and events skipped by sampling, per category.
+ */
+@Component
+public class LoggingMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return;
+        }
+        for (Logger logger : context.getLoggerList()) {
+            for (var it = logger.iteratorForAppenders(); it.hasNext(); ) {
+                if (it.next() instanceof CountingAsyncAppender async) {
+                    FunctionCounter.builder("logging.async.dropped", async, CountingAsyncAppender::droppedCount)
+                        .tag("appender", async.getName())
+                        .description("Log events discarded because the async queue was (nearly) full")
+                        .register(registry);
+                    Gauge.builder("logging.async.queue", async, CountingAsyncAppender::getNumberOfElementsInQueue)
+                        .tag("appender", async.getName())
+                        .register(registry);
+                }
+            }
+        }
+        for (TurboFilter filter : context.getTurboFilterList()) {
+            if (filter instanceof SamplingTurboFilter sampling) {
+                for (var category : sampling.categories().values()) {
+                    FunctionCounter.builder("logging.sampled.out", category, SamplingTurboFilter.Category::dropped)
+                        .tag("category", category.name())
+                        .register(registry);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.automarket.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps one event in N for configured logger categories, so a line logged per request costs
+ * the same whether it fires ten or ten thousand times a second. ERROR is never sampled.
+ * A category is a logger-name prefix; the longest match wins, so {@code x.slow=1} exempts
+ * a child of a sampled {@code x}.
+ * <p>
+ * Configured in logback-spring.xml as {@code <samples>category=N,category=N</samples>}.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private static final Category UNSAMPLED = new Category("", 1);
+
+    private volatile Map<String, Category> categories = Map.of();
+    private final ConcurrentMap<String, Category> byLogger = new ConcurrentHashMap<>();
+
+    public void setSamples(String spec) {
+        Map<String, Category> parsed = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            String[] kv = part.trim().split("=", 2);
+            try {
+                long every = Long.parseLong(kv.length == 2 ? kv[1].trim() : "");
+                if (every < 1) {
+                    throw new NumberFormatException();
+                }
+                parsed.put(kv[0].trim(), new Category(kv[0].trim(), every));
+            } catch (NumberFormatException ex) {
+                addError("Invalid sample '" + part.trim() + "', expected <logger>=<N> with N >= 1");
+            }
+        }
+        categories = Collections.unmodifiableMap(parsed);
+        byLogger.clear();
+    }
+
+    /** Configured categories with the number of events each has dropped. */
+    public Map<String, Category> categories() {
+        return categories;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format == null — это isXxxEnabled(), а не событие; отключённые уровни отсекает сам logback
+        if (!isStarted() || format == null || level.isGreaterOrEqual(Level.ERROR)
+            || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        Category category = byLogger.computeIfAbsent(logger.getName(), this::categoryOf);
+        if (category.every == 1 || category.seen.getAndIncrement() % category.every == 0) {
+            return FilterReply.NEUTRAL;
+        }
+        category.dropped.increment();
+        return FilterReply.DENY;
+    }
+
+    private Category categoryOf(String loggerName) {
+        Category best = UNSAMPLED;
+        for (Category c : categories.values()) {
+            boolean matches = loggerName.equals(c.name) || loggerName.startsWith(c.name + ".");
+            if (matches && c.name.length() > best.name.length()) {
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    public static final class Category {
+
+        private final String name;
+        private final long every;
+        private final AtomicLong seen = new AtomicLong();
+        private final LongAdder dropped = new LongAdder();
+
+        Category(String name, long every) {
+            this.name = name;
+            this.every = every;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public long dropped() {
+            return dropped.sum();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.automarket.media;
+
+import jakarta.annotation.PreDestroy;
+import org.apache.hc.client5.http.SystemDefaultDnsResolver;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+
+/**
+ * Downloads seller-supplied image URLs. Only public http(s) hosts are contacted: every hop,
+ * including redirects, is resolved exactly once by {@link PublicAddressResolver}, and the
+ * connection goes to the addresses it vetted, so a DNS answer that changes between the check
+ * and the connect (rebinding) cannot reach an internal address. TLS still uses the host name
+ * for SNI and certificate checks. Bodies larger than {@code app.media.max-download-bytes} are
+ * refused.
+ */
+@Component
+public class ImageFetcher {
+
+    private static final int MAX_REDIRECTS = 3;
+    private static final Timeout CONNECT_TIMEOUT = Timeout.ofSeconds(5);
+    private static final Timeout TIMEOUT = Timeout.ofSeconds(10);
+
+    // Русский коммент: префиксы /96, в последних 4 байтах которых лежит IPv4
+    private static final byte[] MAPPED = {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, (byte) 0xff, (byte) 0xff};
+    private static final byte[] COMPATIBLE = new byte[12];
+    private static final byte[] NAT64 = {0, 0x64, (byte) 0xff, (byte) 0x9b, 0, 0, 0, 0, 0, 0, 0, 0};
+
+    private final CloseableHttpClient client;
+    private final long maxBytes;
+
+    public ImageFetcher(@Value("${app.media.max-download-bytes}") long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.client = HttpClients.custom()
+            .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                .setDnsResolver(new PublicAddressResolver())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                    .setConnectTimeout(CONNECT_TIMEOUT)
+                    .setSocketTimeout(TIMEOUT)
+                    .build())
+                .build())
+            .setDefaultRequestConfig(RequestConfig.custom().setResponseTimeout(TIMEOUT).build())
+            .disableRedirectHandling()
+            .disableAutomaticRetries()
+            .disableCookieManagement()
+            .build();
+    }
+
+    public byte[] fetch(String url) throws IOException {
+        URI uri = URI.create(url);
+        for (int hop = 0; ; hop++) {
+            requireHttp(uri);
+            HttpGet request = new HttpGet(uri);
+            request.setHeader("Accept", "image/*");
+            try (ClassicHttpResponse res = client.executeOpen(null, request, null)) {
+                int status = res.getCode();
+                if (status / 100 == 3 && hop < MAX_REDIRECTS) {
+                    Header location = res.getFirstHeader("Location");
+                    if (location == null) {
+                        throw new IOException("Redirect without Location from " + url);
+                    }
+                    uri = uri.resolve(location.getValue());
+                    continue;
+                }
+                if (status != 200) {
+                    throw new IOException("HTTP " + status + " fetching " + uri);
+                }
+                HttpEntity entity = res.getEntity();
+                if (entity == null) {
+                    throw new IOException("Empty response fetching " + uri);
+                }
+                try (InputStream body = entity.getContent()) {
+                    byte[] bytes = body.readNBytes((int) Math.min(Integer.MAX_VALUE - 8, maxBytes + 1));
+                    if (bytes.length > maxBytes) {
+                        throw new IOException("Image larger than " + maxBytes + " bytes: " + uri);
+                    }
+                    return bytes;
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        client.close();
+    }
+
+    static void requireHttp(URI uri) throws IOException {
+        String scheme = uri.getScheme();
+        if (!"https".equalsIgnoreCase(scheme) && !"http".equalsIgnoreCase(scheme)) {
+            throw new IOException("Unsupported image URL scheme: " + uri);
+        }
+        if (uri.getHost() == null) {
+            throw new IOException("Image URL without host: " + uri);
+        }
+    }
+
+    /**
+     * False for anything but global unicast: loopback, private (incl. CGNAT 100.64.0.0/10),
+     * link-local, multicast and reserved space, and IPv6 addresses that embed such an IPv4
+     * address (IPv4-mapped, IPv4-compatible, NAT64).
+     */
+    static boolean isPublic(InetAddress address) {
+        byte[] a = address.getAddress();
+        if (a.length == 4) {
+            return isPublicIpv4(a);
+        }
+        if (Arrays.equals(a, 0, 12, MAPPED, 0, 12) || Arrays.equals(a, 0, 12, COMPATIBLE, 0, 12)
+            || Arrays.equals(a, 0, 12, NAT64, 0, 12)) {
+            return isPublicIpv4(Arrays.copyOfRange(a, 12, 16));
+        }
+        // fc00::/7 — в Java нет отдельной проверки для IPv6 ULA
+        return !(address.isAnyLocalAddress() || address.isLoopbackAddress() || address.isLinkLocalAddress()
+            || address.isSiteLocalAddress() || address.isMulticastAddress() || (a[0] & 0xfe) == 0xfc);
+    }
+
+    private static boolean isPublicIpv4(byte[] a) {
+        int b0 = a[0] & 0xff;
+        int b1 = a[1] & 0xff;
+        return !(b0 == 0 || b0 == 10 || b0 == 127 || b0 >= 224           // this network, private, loopback, multicast/reserved
+            || (b0 == 100 && (b1 & 0xc0) == 64)                         // 100.64.0.0/10 CGNAT
+            || (b0 == 169 && b1 == 254)                                 // link-local
+            || (b0 == 172 && (b1 & 0xf0) == 16)                         // 172.16.0.0/12
+            || (b0 == 192 && b1 == 168)                                 // 192.168.0.0/16
+            || (b0 == 192 && b1 == 0 && a[2] == 0)                      // 192.0.0.0/24 IETF protocol assignments
+            || (b0 == 198 && (b1 & 0xfe) == 18));                       // 198.18.0.0/15 benchmarking
+    }
+
+    /** The only name lookup a fetch makes; refuses the host if any of its addresses is not public. */
+    static final class PublicAddressResolver extends SystemDefaultDnsResolver {
+
+        @Override
+        public InetAddress[] resolve(String host) throws UnknownHostException {
+            InetAddress[] addresses = super.resolve(host);
+            for (InetAddress address : addresses) {
+                if (!isPublic(address)) {
+                    throw new UnknownHostException("Refusing to fetch image from non-public address "
+                        + address + " of " + host);
+                }
+            }
+            return addresses;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.automarket.media;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed file store for images. Names carry the SHA-256 of the source, so a
+ * stored file never changes and can be cached by clients forever. Files are sharded by
+ * the first two hex digits to keep directories small.
+ */
+@Component
+public class ImageStore {
+
+    private static final Pattern NAME = Pattern.compile("[0-9a-f]{64}(-w\\d{2,4})?\\.(jpg|png)");
+
+    private final Path root;
+    private final String publicUrl;
+
+    public ImageStore(
+        @Value("${app.media.dir}") Path root,
+        @Value("${app.media.public-url}") String publicUrl
+    ) throws IOException {
+        this.root = Files.createDirectories(root.toAbsolutePath().normalize());
+        this.publicUrl = publicUrl;
+    }
+
+    public boolean exists(String name) {
+        return Files.exists(path(name));
+    }
+
+    /** Writes atomically; an existing file with the same name already has the same content. */
+    public void write(String name, byte[] bytes) throws IOException {
+        Path target = path(name);
+        if (Files.exists(target)) {
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        Path tmp = Files.createTempFile(target.getParent(), name, ".tmp");
+        try {
+            Files.write(tmp, bytes);
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    public byte[] read(String name) throws IOException {
+        return Files.readAllBytes(path(name));
+    }
+
+    /** Resolves a client-supplied name; anything that is not a store name yields empty. */
+    public Optional<Path> resolve(String name) {
+        if (name == null || !NAME.matcher(name).matches()) {
+            return Optional.empty();
+        }
+        Path p = path(name);
+        return Files.isRegularFile(p) ? Optional.of(p) : Optional.empty();
+    }
+
+    public String publicUrl(String name) {
+        return join(publicUrl, name);
+    }
+
+    /** Store name for a URL produced by {@link #publicUrl}, or null for external URLs. */
+    public String nameOf(String url) {
+        String prefix = join(publicUrl, "");
+        if (url == null || !url.startsWith(prefix)) {
+            return null;
+        }
+        String name = url.substring(prefix.length());
+        return NAME.matcher(name).matches() ? name : null;
+    }
+
+    static String join(String base, String name) {
+        return (base.endsWith("/") ? base : base + "/") + name;
+    }
+
+    public static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private Path path(String name) {
+        if (!NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid media name: " + name);
+        }
+        return root.resolve(name.substring(0, 2)).resolve(name);
+    }
+}
@@ -0,0 +1,42 @@
+package com.automarket.media;
+
+import com.automarket.dto.ImageUrl;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+import java.net.URI;
+
+/**
+ * Syntactic check only; whether the host is public is decided when the image is fetched.
+ */
+public class ImageUrlValidator implements ConstraintValidator<ImageUrl, String> {
+
+    static final int MAX_LENGTH = 2048;
+
+    private final ImageStore store;
+
+    public ImageUrlValidator(ImageStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public boolean isValid(String value, ConstraintValidatorContext context) {
+        if (value == null) {
+            return true;
+        }
+        if (value.length() > MAX_LENGTH) {
+            return false;
+        }
+        if (store.nameOf(value) != null) {
+            return true;
+        }
+        try {
+            URI uri = new URI(value);
+            String scheme = uri.getScheme();
+            return ("https".equalsIgnoreCase(scheme) || "http".equalsIgnoreCase(scheme))
+                && uri.getHost() != null && uri.getUserInfo() == null;
+        } catch (Exception ex) {
+            return false;
+        }
+    }
+}
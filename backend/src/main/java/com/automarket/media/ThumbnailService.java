@@ -0,0 +1,189 @@
+package com.automarket.media;
+
+import com.automarket.exception.BadRequestException;
+import com.automarket.repository.CarImageRow;
+import com.automarket.service.CarImageChangedEvent;
+import com.automarket.service.CarService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates thumbnail variants off the request path. Work runs on a fixed pool of platform
+ * threads (resizing is CPU-bound) behind a bounded queue; when the queue is full the job is
+ * dropped and the listing keeps showing its original image until {@link #reconcile} picks it up.
+ */
+@Service
+public class ThumbnailService {
+
+    private static final Logger log = LoggerFactory.getLogger(ThumbnailService.class);
+
+    private final ImageStore store;
+    private final ImageFetcher fetcher;
+    private final CarService cars;
+    private final MeterRegistry registry;
+    private final ThreadPoolExecutor executor;
+    private final Duration reconcileGrace;
+    /** Cars with a job queued or running here, so reconciliation does not queue them twice. */
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    /** Where the next reconciliation pass resumes; 0 starts a new sweep. */
+    private long reconcileAfter;
+
+    public ThumbnailService(
+        ImageStore store,
+        ImageFetcher fetcher,
+        CarService cars,
+        MeterRegistry registry,
+        @Value("${app.media.workers}") int workers,
+        @Value("${app.media.queue-capacity}") int queueCapacity,
+        @Value("${app.media.reconcile-grace}") Duration reconcileGrace
+    ) {
+        this.store = store;
+        this.fetcher = fetcher;
+        this.cars = cars;
+        this.registry = registry;
+        this.reconcileGrace = reconcileGrace;
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            Thread.ofPlatform().name("thumbnail-", 0).daemon().factory(),
+            (job, pool) -> {
+                pending.remove(((Job) job).carId());
+                count("rejected");
+            });
+        new ExecutorServiceMetrics(executor, "thumbnails", List.of()).bindTo(registry);
+    }
+
+    @TransactionalEventListener
+    public void onImageChanged(CarImageChangedEvent event) {
+        submit(event.carId(), event.imageUrl());
+    }
+
+    /**
+     * Re-queues listings whose job was rejected, lost on shutdown or failed, taking only as many as
+     * the queue has room for and walking ids so a backlog is drained across passes. Listings
+     * changed within {@code app.media.reconcile-grace} are left to the job their change queued.
+     * An image that keeps failing is retried once per sweep.
+     */
+    @Scheduled(fixedDelayString = "${app.media.reconcile-interval}", initialDelayString = "${app.media.reconcile-interval}")
+    public void reconcile() {
+        int room = executor.getQueue().remainingCapacity();
+        if (room == 0) {
+            return;
+        }
+        List<CarImageRow> rows = cars.missingThumbnails(reconcileAfter, OffsetDateTime.now().minus(reconcileGrace), room);
+        int queued = 0;
+        for (CarImageRow row : rows) {
+            if (!pending.contains(row.getId())) {
+                submit(row.getId(), row.getImageUrl());
+                queued++;
+            }
+        }
+        reconcileAfter = rows.size() < room ? 0 : rows.get(rows.size() - 1).getId();
+        if (queued > 0) {
+            registry.counter("media.thumbnails", "outcome", "reconciled").increment(queued);
+            log.info("Re-queued {} listings without thumbnails", queued);
+        }
+    }
+
+    private void submit(Long carId, String imageUrl) {
+        pending.add(carId);
+        executor.execute(new Job(carId, imageUrl));
+    }
+
+    /**
+     * Stores an uploaded original under its content hash and returns its public URL.
+     */
+    public String storeUpload(byte[] bytes) throws IOException {
+        String format;
+        try {
+            format = ThumbnailGenerator.format(bytes);
+        } catch (IOException ex) {
+            throw new BadRequestException("Upload is not an image");
+        }
+        String ext = switch (format) {
+            case "jpeg" -> "jpg";
+            case "png" -> "png";
+            default -> throw new BadRequestException("Only JPEG and PNG uploads are supported");
+        };
+        String name = ImageStore.sha256(bytes) + "." + ext;
+        store.write(name, bytes);
+        return store.publicUrl(name);
+    }
+
+    void process(Long carId, String imageUrl) {
+        try {
+            byte[] source = load(imageUrl);
+            String hash = ImageStore.sha256(source);
+            if (store.exists(Thumbnails.fileName(hash, Thumbnails.WIDTHS[Thumbnails.WIDTHS.length - 1]))) {
+                count("reused");
+            } else {
+                for (Map.Entry<Integer, byte[]> v : ThumbnailGenerator.generate(source, Thumbnails.WIDTHS).entrySet()) {
+                    store.write(Thumbnails.fileName(hash, v.getKey()), v.getValue());
+                }
+                count("generated");
+            }
+            if (!cars.attachThumbnail(carId, imageUrl, hash)) {
+                log.debug("Car {} changed its image while thumbnails were generated", carId);
+            }
+        } catch (Exception ex) {
+            count("failed");
+            log.warn("Thumbnail generation failed for car {} ({}): {}", carId, imageUrl, ex.getMessage());
+        }
+    }
+
+    private byte[] load(String imageUrl) throws IOException {
+        String local = store.nameOf(imageUrl);
+        return local != null ? store.read(local) : fetcher.fetch(imageUrl);
+    }
+
+    private void count(String outcome) {
+        registry.counter("media.thumbnails", "outcome", outcome).increment();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** A queued thumbnail job; carries the car id so a rejected one can be released from {@link #pending}. */
+    private final class Job implements Runnable {
+
+        private final Long carId;
+        private final String imageUrl;
+
+        Job(Long carId, String imageUrl) {
+            this.carId = carId;
+            this.imageUrl = imageUrl;
+        }
+
+        Long carId() {
+            return carId;
+        }
+
+        @Override
+        public void run() {
+            try {
+                process(carId, imageUrl);
+            } finally {
+                pending.remove(carId);
+            }
+        }
+    }
+}
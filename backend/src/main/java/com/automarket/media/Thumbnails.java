@@ -0,0 +1,26 @@
+package com.automarket.media;
+
+/**
+ * Naming of thumbnail variants. Every variant of a source image shares the SHA-256 of the
+ * source bytes, so the same photo used by several listings is resized and stored once.
+ */
+public final class Thumbnails {
+
+    /** Widths generated for every image, largest first. */
+    static final int[] WIDTHS = {1280, 640, 320};
+
+    /** Variant exposed as {@code thumbnailUrl}; the others follow the same naming for srcset. */
+    public static final int GRID_WIDTH = 320;
+
+    private Thumbnails() {
+    }
+
+    public static String fileName(String sourceHash, int width) {
+        return sourceHash + "-w" + width + ".jpg";
+    }
+
+    /** Public URL of the grid variant, or null while no thumbnail exists. */
+    public static String url(String publicBase, String sourceHash) {
+        return sourceHash == null ? null : ImageStore.join(publicBase, fileName(sourceHash, GRID_WIDTH));
+    }
+}
@@ -0,0 +1,72 @@
+package com.automarket.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Times every CarRepository call ({@code car.repository}, tagged by method and outcome) and
+ * records how many rows it returned ({@code car.repository.rows}). Streams are timed up to
+ * the point the cursor is opened and report no row count.
+ */
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+
+    private final MeterRegistry registry;
+
+    public RepositoryMetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("this(com.automarket.repository.CarRepository)")
+    public Object measure(ProceedingJoinPoint pjp) throws Throwable {
+        String method = pjp.getSignature().getName();
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "success";
+        try {
+            Object result = pjp.proceed();
+            long rows = rows(result);
+            if (rows >= 0) {
+                DistributionSummary.builder("car.repository.rows")
+                    .tag("method", method)
+                    .register(registry)
+                    .record(rows);
+            }
+            return result;
+        } catch (Throwable ex) {
+            outcome = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            sample.stop(Timer.builder("car.repository")
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .register(registry));
+        }
+    }
+
+    private static long rows(Object result) {
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Window<?> window) {
+            return window.size();
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return -1;
+    }
+}
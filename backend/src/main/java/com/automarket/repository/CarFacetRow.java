@@ -0,0 +1,15 @@
+package com.automarket.repository;
+
+/**
+ * One row of the grouped facet query; exactly one of make / yearBucket / priceBucket is set.
+ */
+public interface CarFacetRow {
+
+    String getMake();
+
+    Integer getYearBucket();
+
+    Integer getPriceBucket();
+
+    long getCnt();
+}
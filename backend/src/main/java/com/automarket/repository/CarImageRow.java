@@ -0,0 +1,11 @@
+package com.automarket.repository;
+
+/**
+ * Id and image of a listing still waiting for its thumbnails.
+ */
+public interface CarImageRow {
+
+    Long getId();
+
+    String getImageUrl();
+}
@@ -0,0 +1,11 @@
+package com.automarket.repository;
+
+/**
+ * Owner and version of one car; read only to explain why a conditional write matched no row.
+ */
+public interface CarOwnerRow {
+
+    String getSellerUid();
+
+    long getVersion();
+}
@@ -1,9 +1,125 @@
 package com.automarket.repository;
 
 import com.automarket.domain.Car;
+import com.automarket.dto.SellerStatsDto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
 
-public interface CarRepository extends JpaRepository<Car, Long>, JpaSpecificationExecutor<Car> {
+
+public interface CarRepository extends JpaRepository<Car, Long>, JpaSpecificationExecutor<Car>, CarRepositoryCustom {
+
+    /**
+     * Filtered list pages go through the Hibernate query cache (ids + count); rows are then
+     * resolved from the "car" entity region. Any write to car invalidates the cached results.
+     */
+    @Override
+    @QueryHints(value = @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"), forCounting = true)
+    Page<Car> findAll(Specification<Car> spec, Pageable pageable);
+
+    /**
+     * Sets the thumbnail only if the listing still has the image it was generated from.
+     * Bumps the version and updated_at so ETags and Last-Modified of the listing change.
+     */
+    @Modifying
+    @Query("""
+        UPDATE Car c SET c.thumbnailKey = :key, c.version = c.version + 1, c.updatedAt = CURRENT_TIMESTAMP
+        WHERE c.id = :id AND c.imageUrl = :imageUrl
+        """)
+    int attachThumbnail(@Param("id") Long id, @Param("imageUrl") String imageUrl, @Param("key") String key);
+
+    /**
+     * Listings without thumbnails after {@code afterId}, in id order, last changed before {@code before};
+     * served by the partial index idx_car_missing_thumbnail (V14).
+     */
+    @Query("""
+        SELECT c.id AS id, c.imageUrl AS imageUrl FROM Car c
+        WHERE c.thumbnailKey IS NULL AND c.id > :afterId AND c.updatedAt < :before
+        ORDER BY c.id
+        """)
+    List<CarImageRow> missingThumbnails(@Param("afterId") long afterId, @Param("before") OffsetDateTime before, Limit limit);
+
+    @Query("SELECT c.sellerUid AS sellerUid, c.version AS version FROM Car c WHERE c.id = :id")
+    Optional<CarOwnerRow> ownerOf(@Param("id") Long id);
+
+    // Русский коммент: один агрегат по индексу (seller_uid, created_at, id), без выборки строк
+    @Query("""
+        SELECT new com.automarket.dto.SellerStatsDto(
+            count(c), avg(c.priceEur), min(c.year), max(c.year), max(c.createdAt))
+        FROM Car c WHERE c.sellerUid = :sellerUid
+        """)
+    SellerStatsDto sellerStats(@Param("sellerUid") String sellerUid);
+
+    // Русский коммент: полнотекстовый поиск по search_vector (V6), сортировка по релевантности
+    @Query(
+        value = """
+            SELECT c.* FROM car c
+            WHERE c.search_vector @@ to_tsquery('simple', :tsQuery)
+              AND (CAST(:make AS text) IS NULL OR lower(c.make) LIKE concat('%', lower(CAST(:make AS text)), '%'))
+              AND (CAST(:yearFrom AS integer) IS NULL OR c.year >= :yearFrom)
+              AND (CAST(:yearTo AS integer) IS NULL OR c.year <= :yearTo)
+              AND (CAST(:priceFrom AS integer) IS NULL OR c.price_eur >= :priceFrom)
+              AND (CAST(:priceTo AS integer) IS NULL OR c.price_eur <= :priceTo)
+            ORDER BY ts_rank(c.search_vector, to_tsquery('simple', :tsQuery)) DESC, c.id DESC
+            """,
+        countQuery = """
+            SELECT count(*) FROM car c
+            WHERE c.search_vector @@ to_tsquery('simple', :tsQuery)
+              AND (CAST(:make AS text) IS NULL OR lower(c.make) LIKE concat('%', lower(CAST(:make AS text)), '%'))
+              AND (CAST(:yearFrom AS integer) IS NULL OR c.year >= :yearFrom)
+              AND (CAST(:yearTo AS integer) IS NULL OR c.year <= :yearTo)
+              AND (CAST(:priceFrom AS integer) IS NULL OR c.price_eur >= :priceFrom)
+              AND (CAST(:priceTo AS integer) IS NULL OR c.price_eur <= :priceTo)
+            """,
+        nativeQuery = true)
+    Page<Car> search(
+        @Param("tsQuery") String tsQuery,
+        @Param("make") String make,
+        @Param("yearFrom") Integer yearFrom,
+        @Param("yearTo") Integer yearTo,
+        @Param("priceFrom") Integer priceFrom,
+        @Param("priceTo") Integer priceTo,
+        Pageable pageable
+    );
+
+    // Русский коммент: все три фасета за один проход (GROUPING SETS); ведра цен — см. CarService.PRICE_BUCKETS
+    @Query(
+        value = """
+            SELECT f.make AS "make", f.year_bucket AS "yearBucket", f.price_bucket AS "priceBucket", count(*) AS "cnt"
+            FROM (
+              SELECT c.make,
+                     (c.year / 5) * 5 AS year_bucket,
+                     width_bucket(c.price_eur, ARRAY[5000, 10000, 20000, 30000, 50000]) AS price_bucket
+              FROM car c
+              WHERE (CAST(:tsQuery AS text) IS NULL OR c.search_vector @@ to_tsquery('simple', CAST(:tsQuery AS text)))
+                AND (CAST(:make AS text) IS NULL OR lower(c.make) LIKE concat('%', lower(CAST(:make AS text)), '%'))
+                AND (CAST(:yearFrom AS integer) IS NULL OR c.year >= :yearFrom)
+                AND (CAST(:yearTo AS integer) IS NULL OR c.year <= :yearTo)
+                AND (CAST(:priceFrom AS integer) IS NULL OR c.price_eur >= :priceFrom)
+                AND (CAST(:priceTo AS integer) IS NULL OR c.price_eur <= :priceTo)
+            ) f
+            GROUP BY GROUPING SETS ((f.make), (f.year_bucket), (f.price_bucket))
+            """,
+        nativeQuery = true)
+    List<CarFacetRow> facets(
+        @Param("tsQuery") String tsQuery,
+        @Param("make") String make,
+        @Param("yearFrom") Integer yearFrom,
+        @Param("yearTo") Integer yearTo,
+        @Param("priceFrom") Integer priceFrom,
+        @Param("priceTo") Integer priceTo
+    );
 }
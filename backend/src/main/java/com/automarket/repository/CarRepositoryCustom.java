@@ -0,0 +1,41 @@
+package com.automarket.repository;
+
+import com.automarket.domain.Car;
+import com.automarket.dto.CarDto;
+import com.automarket.dto.CarSummaryDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+
+public interface CarRepositoryCustom {
+
+    /**
+     * Forward-only, read-only cursor over the matching cars. Must be consumed (and closed)
+     * inside a transaction; callers should detach rows they are done with.
+     */
+    Stream<Car> stream(Specification<Car> spec, Sort sort, int fetchSize);
+
+    /**
+     * Same filtering and paging as {@code findAll(spec, pageable)}, but selects only the summary
+     * columns via a constructor expression; no entities are hydrated.
+     */
+    Page<CarSummaryDto> findSummaries(Specification<Car> spec, Pageable pageable);
+
+    /**
+     * Applies {@code changes} (entity property name to new value) in one
+     * {@code UPDATE ... RETURNING} that also checks ownership and, if given, the version.
+     * Empty when no row matched; the caller decides whether that is 404, 403 or 412.
+     * Runs as plain JDBC, so the car must not be loaded in the current persistence context.
+     */
+    Optional<CarUpdateResult> updateOwned(Long id, Map<String, Object> changes,
+                                          String sellerUid, boolean admin, Long expectedVersion);
+
+    /** Ownership-checked {@code DELETE ... RETURNING}; empty when no row matched. */
+    Optional<CarDto> deleteOwned(Long id, String sellerUid, boolean admin);
+}
@@ -0,0 +1,268 @@
+package com.automarket.repository;
+
+import com.automarket.domain.Car;
+import com.automarket.dto.CarDto;
+import com.automarket.dto.CarSummaryDto;
+import com.automarket.media.Thumbnails;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.CacheMode;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+
+public class CarRepositoryCustomImpl implements CarRepositoryCustom {
+
+    /** Writable properties and their columns; anything else is rejected before SQL is built. */
+    private static final Map<String, String> COLUMNS = Map.of(
+        "make", "make",
+        "model", "model",
+        "year", "year",
+        "priceEur", "price_eur",
+        "imageUrl", "image_url",
+        "description", "description");
+
+    private static final String RETURNING = """
+        c.id, c.make, c.model, c.year, c.price_eur, c.image_url, c.thumbnail_key,
+        c.description, c.seller_uid, c.created_at, c.version, c.updated_at""";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Value("${app.media.public-url}")
+    private String mediaUrl;
+
+    private final JdbcTemplate jdbc;
+
+    public CarRepositoryCustomImpl(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public Stream<Car> stream(Specification<Car> spec, Sort sort, int fetchSize) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Car> cq = cb.createQuery(Car.class);
+        Root<Car> root = cq.from(Car.class);
+        Predicate where = spec.toPredicate(root, cq, cb);
+        if (where != null) {
+            cq.where(where);
+        }
+        cq.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        // Русский коммент: fetchSize > 0 + открытая транзакция = серверный курсор в PostgreSQL
+        // CacheMode.IGNORE: выгрузка всей таблицы не должна вытеснять горячие записи из L2
+        return em.createQuery(cq)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .setHint(HibernateHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+            .getResultStream();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<CarSummaryDto> findSummaries(Specification<Car> spec, Pageable pageable) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<CarSummaryDto> cq = cb.createQuery(CarSummaryDto.class);
+        Root<Car> root = cq.from(Car.class);
+        cq.select(cb.construct(CarSummaryDto.class,
+            root.get("id"),
+            root.get("make"),
+            root.get("model"),
+            root.get("year"),
+            root.get("priceEur"),
+            root.get("imageUrl"),
+            thumbnailUrl(cb, root.get("thumbnailKey")),
+            root.get("createdAt"),
+            root.get("version")));
+        Predicate where = spec.toPredicate(root, cq, cb);
+        if (where != null) {
+            cq.where(where);
+        }
+        cq.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<CarSummaryDto> query = em.createQuery(cq);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        List<CarSummaryDto> content = query.getResultList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    @Override
+    public Optional<CarUpdateResult> updateOwned(Long id, Map<String, Object> changes,
+                                                 String sellerUid, boolean admin, Long expectedVersion) {
+        // Русский коммент: строку блокируем в CTE, чтобы old.* были значениями именно до этого UPDATE
+        StringBuilder sql = new StringBuilder("""
+            WITH old AS (
+                SELECT id, price_eur, image_url FROM car
+                WHERE id = ? AND (seller_uid = ? OR ?) AND (CAST(? AS bigint) IS NULL OR version = ?)
+                FOR UPDATE
+            )
+            UPDATE car c SET\s""");
+        List<Object> values = new ArrayList<>();
+        for (var e : changes.entrySet()) {
+            String column = COLUMNS.get(e.getKey());
+            if (column == null) {
+                throw new IllegalArgumentException("Unknown car field: " + e.getKey());
+            }
+            sql.append(column).append(" = ?, ");
+            values.add(e.getValue());
+        }
+        if (changes.containsKey("imageUrl")) {
+            // Новая картинка — старые превью больше не подходят
+            sql.append("thumbnail_key = CASE WHEN c.image_url = ? THEN c.thumbnail_key END, ");
+            values.add(changes.get("imageUrl"));
+        }
+        sql.append("version = c.version + 1, updated_at = now() FROM old WHERE c.id = old.id RETURNING ")
+            .append(RETURNING)
+            .append(", old.price_eur AS previous_price_eur, old.image_url AS previous_image_url");
+
+        List<CarUpdateResult> rows = cacheLocked(id, () -> jdbc.query(sql.toString(), ps -> {
+            int i = 1;
+            ps.setLong(i++, id);
+            ps.setString(i++, sellerUid);
+            ps.setBoolean(i++, admin);
+            i = setNullableLong(ps, i, expectedVersion);
+            i = setNullableLong(ps, i, expectedVersion);
+            for (Object value : values) {
+                if (value instanceof Integer n) {
+                    ps.setInt(i++, n);
+                } else {
+                    ps.setString(i++, (String) value);
+                }
+            }
+        }, (rs, n) -> new CarUpdateResult(toDto(rs), rs.getInt("previous_price_eur"), rs.getString("previous_image_url"))));
+
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+
+    @Override
+    public Optional<CarDto> deleteOwned(Long id, String sellerUid, boolean admin) {
+        List<CarDto> rows = cacheLocked(id, () -> jdbc.query(
+            "DELETE FROM car c WHERE c.id = ? AND (c.seller_uid = ? OR ?) RETURNING " + RETURNING,
+            (rs, n) -> toDto(rs),
+            id, sellerUid, admin));
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+
+    private CarDto toDto(ResultSet rs) throws SQLException {
+        return new CarDto(
+            rs.getLong("id"),
+            rs.getString("make"),
+            rs.getString("model"),
+            rs.getInt("year"),
+            rs.getInt("price_eur"),
+            rs.getString("image_url"),
+            Thumbnails.url(mediaUrl, rs.getString("thumbnail_key")),
+            rs.getString("description"),
+            rs.getString("seller_uid"),
+            rs.getObject("created_at", OffsetDateTime.class),
+            rs.getLong("version"),
+            rs.getObject("updated_at", OffsetDateTime.class));
+    }
+
+    private static int setNullableLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.BIGINT);
+        } else {
+            ps.setLong(index, value);
+        }
+        return index + 1;
+    }
+
+    /**
+     * JDBC writes bypass Hibernate, so neither the "car" region nor the query cache timestamps
+     * see them. Runs the write the way Hibernate runs its own: the L2 entry is soft-locked and
+     * the table pre-invalidated before the statement, and both are released when the transaction
+     * completes. A reader that loaded the old row meanwhile cannot put it back afterwards, since
+     * Hibernate rejects puts from sessions that started before the unlock.
+     */
+    private <T> T cacheLocked(Long id, Supplier<T> write) {
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        SessionFactoryImplementor sf = session.getFactory();
+        EntityPersister persister = sf.getMappingMetamodel().getEntityDescriptor(Car.class);
+        EntityDataAccess access = persister.getCacheAccessStrategy();
+        String[] spaces = persister.getPropertySpaces();
+        Object key = access == null ? null
+            : access.generateCacheKey(id, persister, sf, session.getTenantIdentifier());
+
+        SoftLock lock = access == null ? null : access.lockItem(session, key, null);
+        sf.getCache().getTimestampsCache().preInvalidate(spaces, session);
+        Runnable release = () -> {
+            if (access != null) {
+                access.unlockItem(session, key, lock);
+            }
+            sf.getCache().getTimestampsCache().invalidate(spaces, session);
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                return write.get();
+            } finally {
+                release.run();
+            }
+        }
+        // Русский коммент: afterCompletion, а не afterCommit — при откате блокировку тоже нужно снять
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                release.run();
+            }
+        });
+        return write.get();
+    }
+
+    // Тот же URL, что даёт Thumbnails.url: префикс и суффикс вокруг ключа, null пока превью нет
+    private Expression<String> thumbnailUrl(CriteriaBuilder cb, Expression<String> key) {
+        String sample = Thumbnails.url(mediaUrl, "");
+        int at = sample.indexOf(Thumbnails.fileName("", Thumbnails.GRID_WIDTH));
+        return cb.<String>selectCase()
+            .when(cb.isNull(key), cb.nullLiteral(String.class))
+            .otherwise(cb.concat(cb.concat(cb.literal(sample.substring(0, at)), key), cb.literal(sample.substring(at))));
+    }
+
+    private long count(Specification<Car> spec) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<Car> root = cq.from(Car.class);
+        cq.select(cb.count(root));
+        Predicate where = spec.toPredicate(root, cq, cb);
+        if (where != null) {
+            cq.where(where);
+        }
+        return em.createQuery(cq).getSingleResult();
+    }
+}
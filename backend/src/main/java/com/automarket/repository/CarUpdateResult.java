@@ -0,0 +1,12 @@
+package com.automarket.repository;
+
+import com.automarket.dto.CarDto;
+
+/**
+ * Row returned by a conditional update, with the values the statement replaced.
+ */
+public record CarUpdateResult(
+    CarDto car,
+    int previousPriceEur,
+    String previousImageUrl
+) {}
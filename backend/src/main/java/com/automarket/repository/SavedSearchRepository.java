@@ -0,0 +1,17 @@
+package com.automarket.repository;
+
+import com.automarket.domain.SavedSearch;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+
+public interface SavedSearchRepository extends JpaRepository<SavedSearch, Long> {
+
+    List<SavedSearch> findByOwnerUidOrderByCreatedAtDesc(String ownerUid);
+
+    long countByOwnerUid(String ownerUid);
+
+    Stream<SavedSearch> streamAllBy();
+}
@@ -1,7 +1,5 @@
 package com.automarket.security;
 
-import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.auth.FirebaseToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,12 +15,17 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.Optional;
 
 public class FirebaseAuthFilter extends OncePerRequestFilter {
 
     private static final Logger log = LoggerFactory.getLogger(FirebaseAuthFilter.class);
 
+    private final TokenVerifier verifier;
+
+    public FirebaseAuthFilter(TokenVerifier verifier) {
+        this.verifier = verifier;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -32,24 +35,21 @@ public class FirebaseAuthFilter extends OncePerRequestFilter {
         if (auth != null && auth.startsWith("Bearer ")) {
             String idToken = auth.substring(7);
             try {
-                FirebaseToken decoded = FirebaseAuth.getInstance().verifyIdToken(idToken);
-
-                String role = Optional.ofNullable(decoded.getClaims().get("role"))
-                    .map(Object::toString)
-                    .orElse("USER");
+                VerifiedToken token = verifier.verify(idToken);
+                String role = token.role();
 
                 List<GrantedAuthority> authorities = List.of(
                     new SimpleGrantedAuthority("ROLE_" + role.toUpperCase())
                 );
 
                 var authentication = new UsernamePasswordAuthenticationToken(
-                    decoded.getUid(),
+                    token.uid(),
                     null,
                     authorities
                 );
                 SecurityContextHolder.getContext().setAuthentication(authentication);
 
-                log.info("FirebaseAuthFilter OK uid={}, role={}, authorities={}", decoded.getUid(), role, authorities);
+                log.debug("FirebaseAuthFilter OK uid={}, role={}", token.uid(), role);
             } catch (Exception e) {
                 log.warn("FirebaseAuthFilter FAIL: {}", e.getMessage());
                 SecurityContextHolder.clearContext();
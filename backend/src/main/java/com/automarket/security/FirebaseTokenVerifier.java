@@ -0,0 +1,39 @@
+package com.automarket.security;
+
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseAuthException;
+import com.google.firebase.auth.FirebaseToken;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Full signature check through the Admin SDK. Google's public keys are fetched once and
+ * kept by the SDK until their Cache-Control max-age runs out, so only the RSA check is paid per call.
+ * The SDK is resolved per call because it is initialized in the background.
+ */
+public class FirebaseTokenVerifier implements TokenVerifier {
+
+    private final Supplier<FirebaseAuth> auth;
+
+    public FirebaseTokenVerifier(Supplier<FirebaseAuth> auth) {
+        this.auth = auth;
+    }
+
+    @Override
+    public VerifiedToken verify(String idToken) throws FirebaseAuthException {
+        FirebaseToken decoded = auth.get().verifyIdToken(idToken);
+
+        String role = Optional.ofNullable(decoded.getClaims().get("role"))
+            .map(Object::toString)
+            .orElse("USER");
+
+        // Русский коммент: exp приходит в секундах; без него токен не кешируем
+        Instant expiresAt = decoded.getClaims().get("exp") instanceof Number exp
+            ? Instant.ofEpochSecond(exp.longValue())
+            : Instant.EPOCH;
+
+        return new VerifiedToken(decoded.getUid(), role, expiresAt);
+    }
+}
@@ -0,0 +1,97 @@
+package com.automarket.security;
+
+import com.automarket.exception.ApiError;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs right after {@link FirebaseAuthFilter}: signed-in clients are limited per Firebase
+ * UID, everyone else per client IP. Rejected requests get 429 with {@code Retry-After}
+ * before they reach a controller or the connection pool.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter limiter;
+    private final ObjectMapper json;
+    private final Map<RateLimiter.Kind, Counter> allowed = new EnumMap<>(RateLimiter.Kind.class);
+    private final Map<RateLimiter.Kind, Counter> rejected = new EnumMap<>(RateLimiter.Kind.class);
+
+    public RateLimitFilter(RateLimiter limiter, ObjectMapper json, MeterRegistry registry) {
+        this.limiter = limiter;
+        this.json = json;
+        for (RateLimiter.Kind kind : RateLimiter.Kind.values()) {
+            String tag = kind.name().toLowerCase();
+            allowed.put(kind, registry.counter("http.ratelimit", "kind", tag, "outcome", "allowed"));
+            rejected.put(kind, registry.counter("http.ratelimit", "kind", tag, "outcome", "rejected"));
+        }
+        registry.gauge("http.ratelimit.keys", limiter, RateLimiter::trackedKeys);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        // Русский коммент: статика превью и health не лимитируем, они не трогают БД
+        return !path.startsWith("/api/")
+            || path.startsWith("/api/media/")
+            || path.equals("/api/health")
+            || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain)
+        throws ServletException, IOException {
+        RateLimiter.Kind kind = switch (request.getMethod()) {
+            case "GET", "HEAD" -> RateLimiter.Kind.READ;
+            default -> RateLimiter.Kind.WRITE;
+        };
+        long waitNanos = limiter.tryAcquire(clientKey(request), kind);
+        if (waitNanos == 0) {
+            allowed.get(kind).increment();
+            chain.doFilter(request, response);
+            return;
+        }
+
+        rejected.get(kind).increment();
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        json.writeValue(response.getOutputStream(), new ApiError(
+            "TooManyRequests",
+            "Rate limit exceeded, retry after " + retryAfter + "s",
+            HttpStatus.TOO_MANY_REQUESTS.value(),
+            request.getRequestURI(),
+            OffsetDateTime.now(),
+            List.of()
+        ));
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
+            return "uid:" + auth.getPrincipal();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,78 @@
+package com.automarket.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory token buckets per client key, with separate budgets for reads and writes.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding its "theoretical arrival time" (the GCRA
+ * form of a token bucket): a request is admitted if pushing that time forward by one token
+ * interval keeps it within {@code burst} intervals of now. Admission is one CAS, no locks.
+ * Buckets live in a size-bounded Caffeine cache and are dropped once idle long enough to
+ * have refilled completely, so an evicted bucket is indistinguishable from a full one.
+ */
+public class RateLimiter {
+
+    public enum Kind { READ, WRITE }
+
+    /** Sustained rate {@code perSecond} with bursts of up to {@code burst} requests. */
+    public record Budget(double perSecond, int burst) {
+        long intervalNanos() {
+            return (long) (1_000_000_000L / perSecond);
+        }
+
+        long toleranceNanos() {
+            return intervalNanos() * burst;
+        }
+    }
+
+    private final Budget read;
+    private final Budget write;
+    private final LongSupplier nanoTime;
+    private final Cache<String, AtomicLong> buckets;
+
+    public RateLimiter(Budget read, Budget write, long maxKeys, LongSupplier nanoTime) {
+        this.read = read;
+        this.write = write;
+        this.nanoTime = nanoTime;
+        long refill = Math.max(read.toleranceNanos(), write.toleranceNanos());
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(maxKeys)
+            .expireAfterAccess(Duration.ofNanos(refill))
+            .ticker(nanoTime::getAsLong)
+            .build();
+    }
+
+    /**
+     * Takes one token for {@code key}. Returns 0 if admitted, otherwise how long the client
+     * should wait, in nanoseconds, before the next request can succeed.
+     */
+    public long tryAcquire(String key, Kind kind) {
+        Budget budget = kind == Kind.WRITE ? write : read;
+        AtomicLong tat = buckets.get(kind.name() + ':' + key, k -> new AtomicLong(Long.MIN_VALUE));
+        long interval = budget.intervalNanos();
+        long tolerance = budget.toleranceNanos();
+        while (true) {
+            long now = nanoTime.getAsLong();
+            long current = tat.get();
+            long base = current == Long.MIN_VALUE || current - now < 0 ? now : current;
+            long next = base + interval;
+            long wait = next - now - tolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (tat.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public long trackedKeys() {
+        return buckets.estimatedSize();
+    }
+}
@@ -1,5 +1,12 @@
 package com.automarket.security;
 
+import com.automarket.config.FirebaseConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.firebase.auth.FirebaseAuth;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.beans.factory.annotation.Value;
@@ -14,6 +21,7 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.cors.CorsConfigurationSource;
 
+import java.time.Clock;
 import java.util.List;
 
 @Configuration
@@ -24,35 +32,97 @@ public class SecurityConfig {
     @Value("${app.cors.origins:http://localhost:5173,http://localhost:5208,http://localhost:5209}")
     private List<String> corsOrigins;
 
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   TokenVerifier tokenVerifier,
+                                                   RateLimiter rateLimiter,
+                                                   ObjectMapper objectMapper,
+                                                   MeterRegistry registry,
+                                                   @Value("${app.rate-limit.enabled:true}") boolean rateLimitEnabled)
+        throws Exception {
         http
             .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .cors(cors -> {})
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/health","/v3/api-docs/**","/swagger-ui/**","/swagger-ui.html").permitAll()
+                .requestMatchers("/actuator/health/**", "/actuator/info", "/livez", "/readyz").permitAll()
+                .requestMatchers(this::onManagementPort).permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .requestMatchers("/admin/**").permitAll()
                 .requestMatchers("/api/whoami").permitAll()
                 .requestMatchers("/api/admin/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/cars/**").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/media/**").permitAll()
+                .requestMatchers(HttpMethod.POST, "/api/media").hasAnyRole("SELLER","ADMIN")
                 .requestMatchers(HttpMethod.POST,   "/api/cars/**").hasAnyRole("SELLER","ADMIN")
                 .requestMatchers(HttpMethod.PUT,    "/api/cars/**").hasAnyRole("SELLER","ADMIN")
+                .requestMatchers(HttpMethod.PATCH,  "/api/cars/**").hasAnyRole("SELLER","ADMIN")
                 .requestMatchers(HttpMethod.DELETE, "/api/cars/**").hasAnyRole("SELLER","ADMIN")
                 .anyRequest().authenticated()
             );
 
-        http.addFilterBefore(new FirebaseAuthFilter(), UsernamePasswordAuthenticationFilter.class);
+        http.addFilterBefore(new FirebaseAuthFilter(tokenVerifier), UsernamePasswordAuthenticationFilter.class);
+        if (rateLimitEnabled) {
+            // Русский коммент: после аутентификации, чтобы ключом был UID, а не IP
+            http.addFilterAfter(new RateLimitFilter(rateLimiter, objectMapper, registry), FirebaseAuthFilter.class);
+        }
 
         return http.build();
     }
 
+    /**
+     * Requests that reached the internal management port (management.server.port). It is not published
+     * outside the cluster, so scrapers need no token there; on the public port actuator stays ADMIN-only.
+     */
+    private boolean onManagementPort(HttpServletRequest request) {
+        return managementPort > 0 && managementPort != serverPort && request.getLocalPort() == managementPort;
+    }
+
+    @Bean
+    public TokenVerifier tokenVerifier(@Value("${app.auth.token-cache.max-size:10000}") long maxSize,
+                                       MeterRegistry registry,
+                                       ObjectProvider<FirebaseConfig> firebaseConfig) {
+        // Русский коммент: без firebase.enabled конфигурации нет — как раньше, FirebaseAuth по умолчанию
+        FirebaseConfig config = firebaseConfig.getIfAvailable();
+        var sdk = new FirebaseTokenVerifier(config != null ? config::auth : FirebaseAuth::getInstance);
+        TokenVerifier firebase = new TimedTokenVerifier(sdk, registry);
+        if (maxSize <= 0) {
+            return firebase;
+        }
+        var cached = new CachingTokenVerifier(firebase, maxSize, Clock.systemUTC());
+        CaffeineCacheMetrics.monitor(registry, cached.cache(), "authTokens");
+        return cached;
+    }
+
+    @Bean
+    public RateLimiter rateLimiter(
+        @Value("${app.rate-limit.read.per-second}") double readPerSecond,
+        @Value("${app.rate-limit.read.burst}") int readBurst,
+        @Value("${app.rate-limit.write.per-second}") double writePerSecond,
+        @Value("${app.rate-limit.write.burst}") int writeBurst,
+        @Value("${app.rate-limit.max-keys}") long maxKeys
+    ) {
+        return new RateLimiter(
+            new RateLimiter.Budget(readPerSecond, readBurst),
+            new RateLimiter.Budget(writePerSecond, writeBurst),
+            maxKeys,
+            System::nanoTime);
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration cfg = new CorsConfiguration();
         cfg.setAllowedOrigins(corsOrigins);
-        cfg.setAllowedMethods(List.of("GET","POST","PUT","DELETE","OPTIONS"));
-        cfg.setAllowedHeaders(List.of("Authorization","Content-Type","X-Requested-With","Accept","Origin"));
+        cfg.setAllowedMethods(List.of("GET","POST","PUT","PATCH","DELETE","OPTIONS"));
+        cfg.setAllowedHeaders(List.of("Authorization","Content-Type","X-Requested-With","Accept","Origin","If-Match"));
+        cfg.setExposedHeaders(List.of("Retry-After","ETag"));
         cfg.setAllowCredentials(false);
         cfg.setMaxAge(3600L);
 
@@ -0,0 +1,32 @@
+package com.automarket.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Records {@code auth.token.verify} latency for the wrapped verifier, tagged by outcome.
+ */
+public class TimedTokenVerifier implements TokenVerifier {
+
+    private final TokenVerifier delegate;
+    private final MeterRegistry registry;
+
+    public TimedTokenVerifier(TokenVerifier delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.registry = registry;
+    }
+
+    @Override
+    public VerifiedToken verify(String idToken) throws Exception {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "valid";
+        try {
+            return delegate.verify(idToken);
+        } catch (Exception ex) {
+            outcome = "invalid";
+            throw ex;
+        } finally {
+            sample.stop(Timer.builder("auth.token.verify").tag("outcome", outcome).register(registry));
+        }
+    }
+}
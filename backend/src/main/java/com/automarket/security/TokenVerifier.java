@@ -0,0 +1,9 @@
+package com.automarket.security;
+
+/**
+ * Verifies a bearer ID token. Throws on any invalid, expired or unverifiable token.
+ */
+public interface TokenVerifier {
+
+    VerifiedToken verify(String idToken) throws Exception;
+}
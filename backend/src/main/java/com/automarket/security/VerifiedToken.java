@@ -0,0 +1,12 @@
+package com.automarket.security;
+
+import java.time.Instant;
+
+/**
+ * The parts of a verified Firebase ID token the app actually uses.
+ */
+public record VerifiedToken(
+    String uid,
+    String role,
+    Instant expiresAt
+) {}
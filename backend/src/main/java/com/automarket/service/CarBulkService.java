@@ -0,0 +1,279 @@
+package com.automarket.service;
+
+import com.automarket.domain.Car;
+import com.automarket.dto.BulkImportResult;
+import com.automarket.dto.CarCreateDto;
+import com.automarket.dto.CarDto;
+import com.automarket.dto.CarFilter;
+import com.automarket.exception.BadRequestException;
+import com.automarket.repository.CarRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.Validator;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Bulk upload (NDJSON / CSV) and export of listings. Uploads are read line by line and written
+ * in batches of {@link #BATCH_SIZE}, each batch one transaction; a batch the database rejects is
+ * retried row by row so the error report points at the offending lines.
+ * Exports read through a forward-only cursor and detach every row once written, so memory
+ * stays flat regardless of how many listings go out.
+ */
+@Service
+public class CarBulkService {
+
+    public static final int BATCH_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int FETCH_SIZE = 500;
+    private static final Sort BY_ID = Sort.by("id");
+
+    private final CarService cars;
+    private final CarRepository repo;
+    private final CarMapper mapper;
+    private final ObjectMapper json;
+    private final Validator validator;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    public CarBulkService(CarService cars, CarRepository repo, CarMapper mapper,
+                          ObjectMapper json, Validator validator) {
+        this.cars = cars;
+        this.repo = repo;
+        this.mapper = mapper;
+        this.json = json;
+        this.validator = validator;
+    }
+
+    public BulkImportResult importNdjson(InputStream in) throws IOException {
+        var run = new ImportRun();
+        try (var reader = reader(in)) {
+            String line;
+            long lineNo = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    run.add(lineNo, json.readValue(line, CarCreateDto.class));
+                } catch (JsonProcessingException ex) {
+                    run.reject(lineNo, "Malformed JSON: " + ex.getOriginalMessage());
+                }
+            }
+        }
+        return run.finish();
+    }
+
+    public BulkImportResult importCsv(InputStream in) throws IOException {
+        var run = new ImportRun();
+        try (var reader = reader(in)) {
+            String header = reader.readLine();
+            if (header == null) {
+                return run.finish();
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            List<String> names = CarCsv.parse(header.replace("\uFEFF", ""));
+            for (int i = 0; i < names.size(); i++) {
+                columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            for (String column : CarCsv.COLUMNS) {
+                if (!column.equals("description") && !columns.containsKey(column.toLowerCase(Locale.ROOT))) {
+                    throw new BadRequestException("CSV header is missing column: " + column);
+                }
+            }
+
+            String line;
+            long lineNo = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                long startLine = lineNo;
+                var record = new StringBuilder(line);
+                while (!CarCsv.isComplete(record) && (line = reader.readLine()) != null) {
+                    lineNo++;
+                    record.append('\n').append(line);
+                }
+                if (record.toString().isBlank()) {
+                    continue;
+                }
+                try {
+                    run.add(startLine, fromCsv(CarCsv.parse(record.toString()), columns));
+                } catch (BadRequestException ex) {
+                    run.reject(startLine, ex.getMessage());
+                }
+            }
+        }
+        return run.finish();
+    }
+
+    @Transactional(readOnly = true)
+    public void exportJson(CarFilter filter, OutputStream out) throws IOException {
+        try (JsonGenerator gen = json.createGenerator(out)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gen.writeStartArray();
+            forEach(filter, gen::writeObject);
+            gen.writeEndArray();
+        }
+        out.flush();
+    }
+
+    @Transactional(readOnly = true)
+    public void exportNdjson(CarFilter filter, OutputStream out) throws IOException {
+        try (SequenceWriter writer = json.writer()
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .withRootValueSeparator("\n")
+            .writeValues(out)) {
+            forEach(filter, writer::write);
+        }
+        out.write('\n');
+        out.flush();
+    }
+
+    @Transactional(readOnly = true)
+    public void exportCsv(CarFilter filter, OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        writer.write("id," + String.join(",", CarCsv.COLUMNS) + ",sellerUid,createdAt\n");
+        forEach(filter, car -> writer.write(String.join(",",
+            CarCsv.escape(car.id()),
+            CarCsv.escape(car.make()),
+            CarCsv.escape(car.model()),
+            CarCsv.escape(car.year()),
+            CarCsv.escape(car.priceEur()),
+            CarCsv.escape(car.imageUrl()),
+            CarCsv.escape(car.description()),
+            CarCsv.escape(car.sellerUid()),
+            CarCsv.escape(car.createdAt())) + "\n"));
+        writer.flush();
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(CarDto car) throws IOException;
+    }
+
+    private void forEach(CarFilter filter, RowWriter sink) throws IOException {
+        try (Stream<Car> rows = repo.stream(CarSpecifications.filter(filter), BY_ID, FETCH_SIZE)) {
+            Iterator<Car> it = rows.iterator();
+            while (it.hasNext()) {
+                Car car = it.next();
+                sink.write(mapper.toDto(car));
+                em.detach(car);
+            }
+        }
+    }
+
+    private static BufferedReader reader(InputStream in) {
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    private static CarCreateDto fromCsv(List<String> fields, Map<String, Integer> columns) {
+        return new CarCreateDto(
+            field(fields, columns, "make"),
+            field(fields, columns, "model"),
+            intField(fields, columns, "year"),
+            intField(fields, columns, "priceEur"),
+            field(fields, columns, "imageUrl"),
+            field(fields, columns, "description")
+        );
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer idx = columns.get(name.toLowerCase(Locale.ROOT));
+        if (idx == null || idx >= fields.size()) {
+            return null;
+        }
+        String v = fields.get(idx).trim();
+        return v.isEmpty() ? null : v;
+    }
+
+    private static int intField(List<String> fields, Map<String, Integer> columns, String name) {
+        String v = field(fields, columns, name);
+        if (v == null) {
+            throw new BadRequestException(name + ": must not be empty");
+        }
+        try {
+            return Integer.parseInt(v);
+        } catch (NumberFormatException ex) {
+            throw new BadRequestException(name + ": not a number: " + v);
+        }
+    }
+
+    private final class ImportRun {
+        private final List<CarCreateDto> pending = new ArrayList<>(BATCH_SIZE);
+        private final List<Long> pendingLines = new ArrayList<>(BATCH_SIZE);
+        private final List<BulkImportResult.RowError> errors = new ArrayList<>();
+        private long accepted;
+        private long rejected;
+
+        void add(long line, CarCreateDto dto) {
+            var violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                reject(line, violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+                return;
+            }
+            pending.add(dto);
+            pendingLines.add(line);
+            if (pending.size() >= BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void reject(long line, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new BulkImportResult.RowError(line, message));
+            }
+        }
+
+        BulkImportResult finish() {
+            flush();
+            return new BulkImportResult(accepted, rejected, List.copyOf(errors));
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            try {
+                accepted += cars.createAll(pending);
+            } catch (DataAccessException batchFailure) {
+                for (int i = 0; i < pending.size(); i++) {
+                    try {
+                        accepted += cars.createAll(List.of(pending.get(i)));
+                    } catch (DataAccessException ex) {
+                        reject(pendingLines.get(i), ex.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+            pending.clear();
+            pendingLines.clear();
+        }
+    }
+}
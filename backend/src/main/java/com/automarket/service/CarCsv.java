@@ -0,0 +1,70 @@
+package com.automarket.service;
+
+import com.automarket.exception.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 reader/writer for the bulk import/export format.
+ */
+final class CarCsv {
+
+    static final List<String> COLUMNS = List.of("make", "model", "year", "priceEur", "imageUrl", "description");
+
+    private CarCsv() {
+    }
+
+    /** A record is complete once its quotes are balanced; quoted fields may span lines. */
+    static boolean isComplete(CharSequence record) {
+        int quotes = 0;
+        for (int i = 0; i < record.length(); i++) {
+            if (record.charAt(i) == '"') {
+                quotes++;
+            }
+        }
+        return quotes % 2 == 0;
+    }
+
+    static List<String> parse(String record) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char ch = record.charAt(i);
+            if (quoted) {
+                if (ch == '"' && i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                    cur.append('"');
+                    i++;
+                } else if (ch == '"') {
+                    quoted = false;
+                } else {
+                    cur.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                fields.add(cur.toString());
+                cur.setLength(0);
+            } else {
+                cur.append(ch);
+            }
+        }
+        if (quoted) {
+            throw new BadRequestException("Unterminated quoted field");
+        }
+        fields.add(cur.toString());
+        return fields;
+    }
+
+    static String escape(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String v = value.toString();
+        if (v.indexOf(',') >= 0 || v.indexOf('"') >= 0 || v.indexOf('\n') >= 0 || v.indexOf('\r') >= 0) {
+            return '"' + v.replace("\"", "\"\"") + '"';
+        }
+        return v;
+    }
+}
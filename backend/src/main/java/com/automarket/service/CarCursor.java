@@ -0,0 +1,93 @@
+package com.automarket.service;
+
+import com.automarket.exception.BadRequestException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Opaque keyset cursor for {@code GET /api/cars/scroll}.
+ * The token carries the sort key, its direction and the last row's (key, id) pair,
+ * so follow-up calls need nothing but {@code after}.
+ */
+public final class CarCursor {
+
+    private static final String VERSION = "v1";
+    private static final Set<String> KEYS = Set.of("createdAt", "priceEur", "year", "id");
+
+    private CarCursor() {
+    }
+
+    public record Position(Sort sort, KeysetScrollPosition position) {}
+
+    /** Parses a {@code property,direction} sort parameter; {@code id} is always appended as tiebreaker. */
+    public static Sort parseSort(String sort) {
+        String[] parts = sort.split(",");
+        String property = parts[0].trim();
+        if (!KEYS.contains(property)) {
+            throw new BadRequestException("Unsupported sort for keyset paging: " + property);
+        }
+        Sort.Direction dir = Sort.Direction.ASC;
+        if (parts.length > 1) {
+            String direction = parts[1].trim();
+            dir = Sort.Direction.fromOptionalString(direction)
+                .orElseThrow(() -> new BadRequestException("Unsupported sort direction: " + direction));
+        }
+        return toSort(property, dir);
+    }
+
+    public static String encode(Sort sort, Map<String, Object> keys) {
+        Sort.Order order = sort.iterator().next();
+        String property = order.getProperty();
+        String raw = String.join("|",
+            VERSION,
+            property,
+            order.getDirection().name(),
+            String.valueOf(keys.get(property)),
+            String.valueOf(keys.get("id")));
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Position decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 5 || !VERSION.equals(parts[0]) || !KEYS.contains(parts[1])) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            String property = parts[1];
+            Sort.Direction dir = Sort.Direction.valueOf(parts[2]);
+
+            Map<String, Object> keys = new LinkedHashMap<>();
+            if (!"id".equals(property)) {
+                keys.put(property, parseValue(property, parts[3]));
+            }
+            keys.put("id", Long.valueOf(parts[4]));
+            return new Position(toSort(property, dir), ScrollPosition.forward(keys));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new BadRequestException("Invalid cursor", ex);
+        }
+    }
+
+    private static Sort toSort(String property, Sort.Direction dir) {
+        Sort byId = Sort.by(dir, "id");
+        return "id".equals(property) ? byId : Sort.by(dir, property).and(byId);
+    }
+
+    private static Object parseValue(String property, String value) {
+        return switch (property) {
+            case "createdAt" -> OffsetDateTime.parse(value);
+            case "priceEur", "year" -> Integer.valueOf(value);
+            default -> throw new IllegalArgumentException("Unsupported cursor key: " + property);
+        };
+    }
+}
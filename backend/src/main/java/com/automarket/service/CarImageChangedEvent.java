@@ -0,0 +1,7 @@
+package com.automarket.service;
+
+/**
+ * Published by CarService when a listing is created or its image URL changes; listeners
+ * run after the transaction commits.
+ */
+public record CarImageChangedEvent(Long carId, String imageUrl) {}
@@ -2,10 +2,20 @@ package com.automarket.service;
 
 import com.automarket.domain.Car;
 import com.automarket.dto.CarDto;
+import com.automarket.dto.CarSummaryDto;
+import com.automarket.media.Thumbnails;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
 public class CarMapper {
+
+    private final String mediaUrl;
+
+    public CarMapper(@Value("${app.media.public-url}") String mediaUrl) {
+        this.mediaUrl = mediaUrl;
+    }
+
     public CarDto toDto(Car e) {
         return new CarDto(
             e.getId(),
@@ -14,9 +24,40 @@ public class CarMapper {
             e.getYear(),
             e.getPriceEur(),
             e.getImageUrl(),
+            Thumbnails.url(mediaUrl, e.getThumbnailKey()),
             e.getDescription(),
             e.getSellerUid(),
-            e.getCreatedAt()
+            e.getCreatedAt(),
+            e.getVersion(),
+            e.getUpdatedAt()
+        );
+    }
+
+    public CarSummaryDto toSummary(Car e) {
+        return new CarSummaryDto(
+            e.getId(),
+            e.getMake(),
+            e.getModel(),
+            e.getYear(),
+            e.getPriceEur(),
+            e.getImageUrl(),
+            Thumbnails.url(mediaUrl, e.getThumbnailKey()),
+            e.getCreatedAt(),
+            e.getVersion()
+        );
+    }
+
+    public CarSummaryDto toSummary(CarDto d) {
+        return new CarSummaryDto(
+            d.id(),
+            d.make(),
+            d.model(),
+            d.year(),
+            d.priceEur(),
+            d.imageUrl(),
+            d.thumbnailUrl(),
+            d.createdAt(),
+            d.version()
         );
     }
 }
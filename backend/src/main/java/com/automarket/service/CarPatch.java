@@ -0,0 +1,79 @@
+package com.automarket.service;
+
+import com.automarket.dto.CarUpdateDto;
+import com.automarket.exception.BadRequestException;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fields to change on a car, keyed by entity property name. Built either from a full
+ * {@link CarUpdateDto} (PUT) or from a JSON Merge Patch (RFC 7386): absent members stay
+ * untouched and {@code null} clears the field. Values are checked against the constraints
+ * declared on {@link CarUpdateDto}, so PUT and PATCH accept exactly the same data.
+ */
+public record CarPatch(Map<String, Object> changes) {
+
+    private static final Set<String> STRINGS = Set.of("make", "model", "imageUrl", "description");
+    private static final Set<String> INTEGERS = Set.of("year", "priceEur");
+
+    public CarPatch {
+        // Map.copyOf не принимает null, а null здесь — «очистить поле»
+        changes = Collections.unmodifiableMap(new LinkedHashMap<>(changes));
+    }
+
+    public static CarPatch of(CarUpdateDto dto) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        changes.put("make", dto.make());
+        changes.put("model", dto.model());
+        changes.put("year", dto.year());
+        changes.put("priceEur", dto.priceEur());
+        changes.put("imageUrl", dto.imageUrl());
+        changes.put("description", dto.description());
+        return new CarPatch(changes);
+    }
+
+    public static CarPatch fromMergePatch(JsonNode patch, Validator validator) {
+        if (patch == null || !patch.isObject()) {
+            throw new BadRequestException("Merge patch must be a JSON object");
+        }
+        Map<String, Object> changes = new LinkedHashMap<>();
+        Set<ConstraintViolation<?>> violations = new HashSet<>();
+        for (var member : patch.properties()) {
+            String field = member.getKey();
+            JsonNode node = member.getValue();
+            Object value;
+            if (STRINGS.contains(field)) {
+                if (!node.isNull() && !node.isTextual()) {
+                    throw new BadRequestException(field + " must be a string");
+                }
+                value = node.isNull() ? null : node.textValue();
+            } else if (INTEGERS.contains(field)) {
+                // Русский коммент: год и цена обязательны, null (удаление) для них недопустим
+                if (!node.isIntegralNumber() || !node.canConvertToInt()) {
+                    throw new BadRequestException(field + " must be an integer");
+                }
+                value = node.intValue();
+            } else {
+                throw new BadRequestException("Unknown field: " + field);
+            }
+            violations.addAll(validator.validateValue(CarUpdateDto.class, field, value));
+            changes.put(field, value);
+        }
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        return new CarPatch(changes);
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+}
@@ -1,15 +1,42 @@
 package com.automarket.service;
 
+import com.automarket.config.CacheConfig;
 import com.automarket.domain.Car;
 import com.automarket.dto.CarCreateDto;
 import com.automarket.dto.CarDto;
+import com.automarket.dto.CarFacetsDto;
+import com.automarket.dto.CarFilter;
+import com.automarket.dto.CarSummaryDto;
 import com.automarket.dto.CarUpdateDto;
+import com.automarket.dto.SellerStatsDto;
+import com.automarket.dto.SliceDto;
+import com.automarket.events.CarEventOutbox;
+import com.automarket.exception.BadRequestException;
+import com.automarket.exception.PreconditionFailedException;
+import com.automarket.repository.CarFacetRow;
+import com.automarket.repository.CarImageRow;
 import com.automarket.repository.CarRepository;
+import com.automarket.repository.CarUpdateResult;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.NoSuchElementException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -19,99 +46,304 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class CarService {
 
+    private static final int MAX_SCROLL_SIZE = 100;
+    private static final int MAX_SIMILAR = 50;
+    private static final int YEAR_BUCKET = 5;
+    /** Lower bounds of the price buckets; must match the width_bucket array in CarRepository.facets. */
+    private static final int[] PRICE_BUCKETS = {0, 5000, 10000, 20000, 30000, 50000};
+
     private final CarRepository repo;
     private final CarMapper mapper;
+    private final ApplicationEventPublisher events;
+    private final CarEventOutbox outbox;
+    private final ListingIndexService listingIndex;
 
-    public CarService(CarRepository repo, CarMapper mapper) {
+    public CarService(CarRepository repo, CarMapper mapper, ApplicationEventPublisher events,
+                      CarEventOutbox outbox, ListingIndexService listingIndex) {
         this.repo = repo;
         this.mapper = mapper;
+        this.events = events;
+        this.outbox = outbox;
+        this.listingIndex = listingIndex;
     }
 
-    public Page<CarDto> findAll(
-        String make, Integer yearFrom, Integer yearTo,
-        Integer priceFrom, Integer priceTo, Pageable pageable
-    ) {
-        Specification<Car> spec = (root, q, cb) -> cb.conjunction();
+    @Cacheable(CacheConfig.CAR_PAGES)
+    @Transactional(readOnly = true)
+    public Page<CarDto> findAll(CarFilter filter, Pageable pageable) {
+        String tsQuery = SearchQuery.toPrefixTsQuery(filter.q());
+        if (tsQuery != null) {
+            // Русский коммент: при поиске порядок задаёт ранжирование, sort клиента игнорируем
+            var ranked = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+            return repo.search(tsQuery, CarSpecifications.escapeLike(filter.make()), filter.yearFrom(), filter.yearTo(),
+                filter.priceFrom(), filter.priceTo(), ranked).map(mapper::toDto);
+        }
+        var indexed = listingIndex.query(filter, pageable);
+        if (indexed.isPresent()) {
+            return indexed.get();
+        }
+        return repo.findAll(CarSpecifications.filter(filter), pageable).map(mapper::toDto);
+    }
 
-        if (make != null && !make.isBlank()) {
-            spec = spec.and((root, q, cb) ->
-                cb.like(cb.lower(root.get("make")), "%" + make.toLowerCase() + "%"));
+    /**
+     * Summary rows for grid views. Full-text searches still go through the ranked entity query.
+     */
+    @Cacheable(cacheNames = CacheConfig.CAR_PAGES, key = "{'summary', #filter, #pageable}")
+    @Transactional(readOnly = true)
+    public Page<CarSummaryDto> findSummaries(CarFilter filter, Pageable pageable) {
+        String tsQuery = SearchQuery.toPrefixTsQuery(filter.q());
+        if (tsQuery != null) {
+            var ranked = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+            return repo.search(tsQuery, CarSpecifications.escapeLike(filter.make()), filter.yearFrom(), filter.yearTo(),
+                filter.priceFrom(), filter.priceTo(), ranked).map(mapper::toSummary);
         }
-        if (yearFrom != null) {
-            spec = spec.and((r, q, cb) -> cb.greaterThanOrEqualTo(r.get("year"), yearFrom));
+        var indexed = listingIndex.query(filter, pageable);
+        if (indexed.isPresent()) {
+            return indexed.get().map(mapper::toSummary);
+        }
+        return repo.findSummaries(CarSpecifications.filter(filter), pageable);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.CAR_PAGES, key = "{'facets', #filter}")
+    @Transactional(readOnly = true)
+    public CarFacetsDto facets(CarFilter filter) {
+        var rows = repo.facets(SearchQuery.toPrefixTsQuery(filter.q()), CarSpecifications.escapeLike(filter.make()),
+            filter.yearFrom(), filter.yearTo(), filter.priceFrom(), filter.priceTo());
+
+        List<CarFacetsDto.ValueCount> makes = new ArrayList<>();
+        List<CarFacetsDto.RangeCount> years = new ArrayList<>();
+        List<CarFacetsDto.RangeCount> prices = new ArrayList<>();
+        for (CarFacetRow row : rows) {
+            if (row.getMake() != null) {
+                makes.add(new CarFacetsDto.ValueCount(row.getMake(), row.getCnt()));
+            } else if (row.getYearBucket() != null) {
+                int from = row.getYearBucket();
+                years.add(new CarFacetsDto.RangeCount(from, from + YEAR_BUCKET - 1, row.getCnt()));
+            } else if (row.getPriceBucket() != null) {
+                // width_bucket даёт индекс ведра 0..N, совпадающий с индексом нижней границы
+                int b = row.getPriceBucket();
+                Integer to = b + 1 < PRICE_BUCKETS.length ? PRICE_BUCKETS[b + 1] - 1 : null;
+                prices.add(new CarFacetsDto.RangeCount(PRICE_BUCKETS[b], to, row.getCnt()));
+            }
         }
-        if (yearTo != null) {
-            spec = spec.and((r, q, cb) -> cb.lessThanOrEqualTo(r.get("year"), yearTo));
+        makes.sort(Comparator.comparingLong(CarFacetsDto.ValueCount::count).reversed()
+            .thenComparing(CarFacetsDto.ValueCount::value));
+        years.sort(Comparator.comparing(CarFacetsDto.RangeCount::from));
+        prices.sort(Comparator.comparing(CarFacetsDto.RangeCount::from));
+        return new CarFacetsDto(makes, years, prices);
+    }
+
+    @Cacheable(CacheConfig.CAR_PAGES)
+    @Transactional(readOnly = true)
+    public SliceDto<CarDto> scroll(CarFilter filter, String after, String sort, int size) {
+        return scroll(CarSpecifications.filter(filter), after, sort, size);
+    }
+
+    /**
+     * The caller's own listings, keyset-paged like {@link #scroll}; with the default
+     * {@code createdAt} sort every page is a range scan on (seller_uid, created_at, id).
+     */
+    @Transactional(readOnly = true)
+    public SliceDto<CarDto> sellerCars(String after, String sort, int size) {
+        return scroll(CarSpecifications.seller(requireUid()), after, sort, size);
+    }
+
+    @Transactional(readOnly = true)
+    public SellerStatsDto sellerStats() {
+        return repo.sellerStats(requireUid());
+    }
+
+    /**
+     * Up to {@code k} listings of the same make closest in model, year and price, from the
+     * in-memory {@link SimilarCarsIndex}. While the index is still loading, a bounded range
+     * query around the car stands in.
+     */
+    @Transactional(readOnly = true)
+    public List<CarSummaryDto> similar(Long id, int k) {
+        if (k < 1 || k > MAX_SIMILAR) {
+            throw new BadRequestException("k must be between 1 and " + MAX_SIMILAR);
         }
-        if (priceFrom != null) {
-            spec = spec.and((r, q, cb) -> cb.greaterThanOrEqualTo(r.get("priceEur"), priceFrom));
+        var indexed = listingIndex.similarTo(id, k);
+        if (indexed.isPresent()) {
+            return indexed.get();
         }
-        if (priceTo != null) {
-            spec = spec.and((r, q, cb) -> cb.lessThanOrEqualTo(r.get("priceEur"), priceTo));
+        // Русский коммент: машины ещё нет в индексе (новая или индекс грузится) — берём её из БД
+        CarDto car = repo.findById(id).map(mapper::toDto)
+            .orElseThrow(() -> new NoSuchElementException("Car " + id + " not found"));
+        return listingIndex.similar(car, k).orElseGet(() -> repo.findAll(CarSpecifications.near(car),
+                PageRequest.of(0, k, Sort.by(Sort.Direction.DESC, "createdAt")))
+            .map(mapper::toSummary).getContent());
+    }
+
+    private SliceDto<CarDto> scroll(Specification<Car> spec, String after, String sort, int size) {
+        Sort order;
+        ScrollPosition position;
+        if (after == null || after.isBlank()) {
+            order = CarCursor.parseSort(sort);
+            position = ScrollPosition.keyset();
+        } else {
+            var cursor = CarCursor.decode(after);
+            order = cursor.sort();
+            position = cursor.position();
         }
+        int limit = Math.max(1, Math.min(size, MAX_SCROLL_SIZE));
 
-        return repo.findAll(spec, pageable).map(mapper::toDto);
+        Window<Car> window = repo.findBy(spec, q -> q.sortBy(order).limit(limit).scroll(position));
+
+        String next = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            var last = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+            next = CarCursor.encode(order, last.getKeys());
+        }
+        return new SliceDto<>(window.map(mapper::toDto).getContent(), window.hasNext(), next);
     }
 
 
+    // Русский коммент: #result здесь уже без Optional — пустой результат (404) не кешируем,
+    // иначе только что созданная на другом инстансе машина 5 минут отдавала бы 404
+    @Cacheable(cacheNames = CacheConfig.CARS, unless = "#result == null")
+    @Transactional(readOnly = true)
     public java.util.Optional<CarDto> findById(Long id) {
-        return repo.findById(id).map(this::toDto);
+        return repo.findById(id).map(mapper::toDto);
     }
 
 
+    @CacheEvict(cacheNames = CacheConfig.CAR_PAGES, allEntries = true)
     public CarDto create(CarCreateDto dto) {
-        Car e = new Car();
-        e.setMake(dto.make());
-        e.setModel(dto.model());
-        e.setYear(dto.year());
-        e.setPriceEur(dto.priceEur());
-        e.setImageUrl(dto.imageUrl());
-        e.setDescription(dto.description());
+        Car e = repo.save(newCar(dto, currentUid()));
+        outbox.created(mapper.toSummary(e));
+        events.publishEvent(new CarImageChangedEvent(e.getId(), e.getImageUrl()));
+        return mapper.toDto(e);
+    }
 
-        // Русский коммент: владелец = текущий Firebase UID
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String uid = (auth != null) ? String.valueOf(auth.getPrincipal()) : null;
-        e.setSellerUid(uid);
+    /**
+     * Inserts all listings in one transaction; with sequence ids and {@code hibernate.jdbc.batch_size}
+     * the rows go out as JDBC batches. Flushes before returning so constraint errors surface here.
+     */
+    @CacheEvict(cacheNames = CacheConfig.CAR_PAGES, allEntries = true)
+    public int createAll(List<CarCreateDto> dtos) {
+        String uid = currentUid();
+        List<Car> entities = dtos.stream().map(dto -> newCar(dto, uid)).toList();
+        repo.saveAllAndFlush(entities);
+        outbox.createdAll(entities.stream().map(mapper::toSummary).toList());
+        entities.forEach(e -> events.publishEvent(new CarImageChangedEvent(e.getId(), e.getImageUrl())));
+        return entities.size();
+    }
 
-        e = repo.save(e);
-        return mapper.toDto(e);
+
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.CARS, key = "#id"),
+        @CacheEvict(cacheNames = CacheConfig.CAR_PAGES, allEntries = true)
+    })
+    public CarDto update(Long id, CarUpdateDto dto, Long expectedVersion) {
+        return write(id, CarPatch.of(dto), expectedVersion);
+    }
+
+    /**
+     * Partial update (JSON Merge Patch). Like {@link #update}, a single conditional
+     * {@code UPDATE ... RETURNING}: no entity is loaded on the success path.
+     */
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.CARS, key = "#id"),
+        @CacheEvict(cacheNames = CacheConfig.CAR_PAGES, allEntries = true)
+    })
+    public CarDto patch(Long id, CarPatch patch, Long expectedVersion) {
+        if (patch.isEmpty()) {
+            // RFC 7386: пустой патч ничего не меняет
+            return repo.findById(id).map(mapper::toDto)
+                .orElseThrow(() -> new NoSuchElementException("Car " + id + " not found"));
+        }
+        return write(id, patch, expectedVersion);
+    }
+
+    private CarDto write(Long id, CarPatch patch, Long expectedVersion) {
+        String uid = requireUid();
+        boolean admin = isAdmin(SecurityContextHolder.getContext().getAuthentication());
+        CarUpdateResult result = repo.updateOwned(id, patch.changes(), uid, admin, expectedVersion)
+            .orElseThrow(() -> writeRejected(id, uid, admin, expectedVersion));
+        CarDto car = result.car();
+        outbox.updated(mapper.toSummary(car), result.previousPriceEur());
+        if (!car.imageUrl().equals(result.previousImageUrl())) {
+            events.publishEvent(new CarImageChangedEvent(car.id(), car.imageUrl()));
+        }
+        return car;
+    }
+
+
+
+    /**
+     * Called by the thumbnail pipeline; false if the image was replaced in the meantime.
+     * Emits an UPDATED event so clients and the listing index pick up the thumbnail URL.
+     */
+    @Transactional(readOnly = true)
+    public List<CarImageRow> missingThumbnails(long afterId, OffsetDateTime before, int limit) {
+        return repo.missingThumbnails(afterId, before, Limit.of(limit));
+    }
+
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.CARS, key = "#id"),
+        @CacheEvict(cacheNames = CacheConfig.CAR_PAGES, allEntries = true)
+    })
+    public boolean attachThumbnail(Long id, String imageUrl, String thumbnailKey) {
+        if (repo.attachThumbnail(id, imageUrl, thumbnailKey) == 0) {
+            return false;
+        }
+        repo.findById(id).ifPresent(car -> outbox.updated(mapper.toSummary(car), car.getPriceEur()));
+        return true;
     }
 
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.CARS, key = "#id"),
+        @CacheEvict(cacheNames = CacheConfig.CAR_PAGES, allEntries = true)
+    })
+    public void delete(Long id) {
+        String uid = requireUid();
+        boolean admin = isAdmin(SecurityContextHolder.getContext().getAuthentication());
+        CarDto car = repo.deleteOwned(id, uid, admin)
+            .orElseThrow(() -> writeRejected(id, uid, admin, null));
+        outbox.deleted(mapper.toSummary(car));
+    }
 
-    public CarDto update(Long id, CarUpdateDto dto) {
-        var e = repo.findById(id).orElseThrow();
-        assertOwnerOrAdmin(e);
+    /**
+     * Why a conditional write matched no row. Only the failure path pays for this lookup.
+     */
+    private RuntimeException writeRejected(Long id, String uid, boolean admin, Long expectedVersion) {
+        return repo.ownerOf(id).<RuntimeException>map(row -> {
+            if (!admin && !uid.equals(row.getSellerUid())) {
+                return new org.springframework.security.access.AccessDeniedException("Not owner");
+            }
+            if (expectedVersion != null && expectedVersion != row.getVersion()) {
+                return new PreconditionFailedException("Car " + id + " has been modified");
+            }
+            // Русский коммент: строку изменили между UPDATE и этой проверкой
+            return new OptimisticLockingFailureException("Car " + id + " was modified concurrently");
+        }).orElseGet(() -> new NoSuchElementException("Car " + id + " not found"));
+    }
+
+
+    private static Car newCar(CarCreateDto dto, String sellerUid) {
+        Car e = new Car();
         e.setMake(dto.make());
         e.setModel(dto.model());
         e.setYear(dto.year());
         e.setPriceEur(dto.priceEur());
         e.setImageUrl(dto.imageUrl());
         e.setDescription(dto.description());
-        e = repo.save(e);
-        return mapper.toDto(e);
+        e.setSellerUid(sellerUid);
+        return e;
     }
 
-
-
-    public void delete(Long id) {
-        var e = repo.findById(id).orElseThrow();
-        assertOwnerOrAdmin(e);
-        repo.delete(e);
+    // Русский коммент: владелец = текущий Firebase UID
+    private static String currentUid() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return (auth != null) ? String.valueOf(auth.getPrincipal()) : null;
     }
 
-
-    private CarDto toDto(Car c) {
-        return new CarDto(
-            c.getId(),
-            c.getMake(),
-            c.getModel(),
-            c.getYear(),
-            c.getPriceEur(),
-            c.getImageUrl(),
-            c.getDescription(),
-            c.getSellerUid(),
-            c.getCreatedAt()
-        );
+    private static String requireUid() {
+        String uid = currentUid();
+        if (uid == null) {
+            throw new org.springframework.security.access.AccessDeniedException("No auth");
+        }
+        return uid;
     }
 
     private boolean isAdmin(Authentication auth) {
@@ -119,14 +351,4 @@ public class CarService {
             .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
     }
 
-    private void assertOwnerOrAdmin(Car e) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null) throw new org.springframework.security.access.AccessDeniedException("No auth");
-        String uid = String.valueOf(auth.getPrincipal());
-        if (isAdmin(auth)) return;
-        if (e.getSellerUid() == null || !e.getSellerUid().equals(uid)) {
-            throw new org.springframework.security.access.AccessDeniedException("Not owner");
-        }
-    }
-
 }
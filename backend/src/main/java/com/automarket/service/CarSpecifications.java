@@ -0,0 +1,68 @@
+package com.automarket.service;
+
+import com.automarket.domain.Car;
+import com.automarket.dto.CarDto;
+import com.automarket.dto.CarFilter;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.Locale;
+
+public final class CarSpecifications {
+
+    private CarSpecifications() {
+    }
+
+    public static Specification<Car> filter(CarFilter f) {
+        Specification<Car> spec = (root, q, cb) -> cb.conjunction();
+
+        if (f.make() != null) {
+            String make = escapeLike(f.make().toLowerCase());
+            spec = spec.and((root, q, cb) ->
+                cb.like(cb.lower(root.get("make")), "%" + make + "%", '\\'));
+        }
+        if (f.yearFrom() != null) {
+            spec = spec.and((r, q, cb) -> cb.greaterThanOrEqualTo(r.get("year"), f.yearFrom()));
+        }
+        if (f.yearTo() != null) {
+            spec = spec.and((r, q, cb) -> cb.lessThanOrEqualTo(r.get("year"), f.yearTo()));
+        }
+        if (f.priceFrom() != null) {
+            spec = spec.and((r, q, cb) -> cb.greaterThanOrEqualTo(r.get("priceEur"), f.priceFrom()));
+        }
+        if (f.priceTo() != null) {
+            spec = spec.and((r, q, cb) -> cb.lessThanOrEqualTo(r.get("priceEur"), f.priceTo()));
+        }
+        return spec;
+    }
+
+    /**
+     * Escapes LIKE wildcards so a make term matches as a literal substring, like the in-memory
+     * indexes and subscriber filters do. The backslash is also PostgreSQL's default LIKE escape,
+     * so the result can be passed to the native queries as well.
+     */
+    public static String escapeLike(String term) {
+        return term == null ? null
+            : term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    public static Specification<Car> ids(Collection<Long> ids) {
+        return (root, q, cb) -> root.get("id").in(ids);
+    }
+
+    /**
+     * Database fallback for "similar cars" while the in-memory index is loading: same make,
+     * a few years and up to a factor of 1.5 in price around the given car, excluding it.
+     */
+    public static Specification<Car> near(CarDto car) {
+        return (root, q, cb) -> cb.and(
+            cb.equal(cb.lower(root.get("make")), car.make().toLowerCase(Locale.ROOT)),
+            cb.between(root.get("year"), car.year() - 4, car.year() + 4),
+            cb.between(root.get("priceEur"), (int) (car.priceEur() / 1.5), (int) Math.min(car.priceEur() * 1.5, Integer.MAX_VALUE)),
+            cb.notEqual(root.get("id"), car.id()));
+    }
+
+    public static Specification<Car> seller(String sellerUid) {
+        return (root, q, cb) -> cb.equal(root.get("sellerUid"), sellerUid);
+    }
+}
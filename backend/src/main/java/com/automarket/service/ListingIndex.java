@@ -0,0 +1,459 @@
+package com.automarket.service;
+
+import com.automarket.dto.CarDto;
+import com.automarket.dto.CarFilter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Column store of all listings that answers the catalogue filters (make substring, year and
+ * price ranges) with any single sort key of {@link CarCursor} and offset paging.
+ * <p>
+ * Every listing occupies a slot; the filter columns are primitive arrays indexed by slot, makes
+ * are dictionary-encoded with one {@link BitSet} of slots per make, and for every sort key a
+ * permutation keeps the live slots ordered by (key, id). A query evaluates the most selective
+ * predicate from its permutation range or make bitsets, checks the others against the
+ * columns, and pages along the permutation of the requested sort. The returned rows are the
+ * {@link CarDto}s kept alongside, so a hit needs no database access.
+ * <p>
+ * Full-text queries and other sorts are not served ({@link #query} returns empty).
+ * Writers take the write lock; inserts and removals shift the permutations, which is cheap
+ * for a catalogue of this size compared to a round trip.
+ */
+public final class ListingIndex {
+
+    enum Key { ID, CREATED_AT, PRICE, YEAR }
+
+    private static final Map<String, Key> SORT_KEYS = Map.of(
+        "id", Key.ID,
+        "createdAt", Key.CREATED_AT,
+        "priceEur", Key.PRICE,
+        "year", Key.YEAR);
+
+    /** Below this share of matching rows, sorting the matches beats walking the permutation. */
+    private static final int SPARSE_DIVISOR = 32;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] ids;
+    private long[] createdAt;
+    private int[] years;
+    private int[] prices;
+    private int[] makeIds;
+    private CarDto[] rows;
+    private final BitSet live = new BitSet();
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int slotCount;
+
+    private final Map<String, Integer> makeIdByName = new HashMap<>();
+    private final List<String> makeNamesLower = new ArrayList<>();
+    private final List<BitSet> slotsByMake = new ArrayList<>();
+    private int[] makeCounts = new int[16];
+
+    private final int[][] order = new int[Key.values().length][];
+    private int size;
+
+    private ListingIndex(int capacity) {
+        int cap = Math.max(16, capacity);
+        ids = new long[cap];
+        createdAt = new long[cap];
+        years = new int[cap];
+        prices = new int[cap];
+        makeIds = new int[cap];
+        rows = new CarDto[cap];
+        for (Key key : Key.values()) {
+            order[key.ordinal()] = new int[cap];
+        }
+    }
+
+    /** Builds the index in one pass plus one sort per key, instead of shifting per insert. */
+    public static ListingIndex build(Collection<CarDto> cars) {
+        ListingIndex index = new ListingIndex(cars.size() + cars.size() / 4);
+        for (CarDto car : cars) {
+            if (index.slotById.containsKey(car.id())) {
+                continue;
+            }
+            int slot = index.slotCount++;
+            index.slotById.put(car.id(), slot);
+            index.live.set(slot);
+            index.write(slot, car);
+            index.linkMake(slot);
+            index.size++;
+        }
+        for (Key key : Key.values()) {
+            Integer[] sorted = new Integer[index.size];
+            for (int i = 0; i < index.size; i++) {
+                sorted[i] = i;
+            }
+            Arrays.sort(sorted, (a, b) -> index.compare(key, a, b));
+            int[] perm = index.order[key.ordinal()];
+            for (int i = 0; i < sorted.length; i++) {
+                perm[i] = sorted[i];
+            }
+        }
+        return index;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Inserts or replaces a listing. A state older than the one held (lower version) is ignored,
+     * so replays and out-of-order refreshes are harmless.
+     */
+    public void upsert(CarDto car) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = slotById.get(car.id());
+            int slot;
+            if (existing != null) {
+                slot = existing;
+                if (rows[slot].version() > car.version()) {
+                    return;
+                }
+                unlinkOrder(slot);
+                unlinkMake(slot);
+            } else {
+                slot = allocate();
+                slotById.put(car.id(), slot);
+                live.set(slot);
+            }
+            write(slot, car);
+            linkMake(slot);
+            linkOrder(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotById.remove(id);
+            if (slot == null) {
+                return false;
+            }
+            unlinkOrder(slot);
+            unlinkMake(slot);
+            live.clear(slot);
+            rows[slot] = null;
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = slot;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The page {@code repo.findAll(CarSpecifications.filter(filter), pageable)} would return,
+     * or empty when the filter or sort is one the index does not serve. Ties on the sort key
+     * are broken by id in the same direction.
+     */
+    public Optional<Page<CarDto>> query(CarFilter filter, Pageable pageable) {
+        if (filter.q() != null) {
+            return Optional.empty();
+        }
+        Sort.Order primary = null;
+        int orders = 0;
+        for (Sort.Order o : pageable.getSort()) {
+            if (orders == 0) {
+                primary = o;
+            } else if (orders > 1 || !o.getProperty().equals("id") || o.getDirection() != primary.getDirection()) {
+                // Вторичная сортировка допустима только id в том же направлении — это и есть наш tie-break
+                return Optional.empty();
+            }
+            orders++;
+        }
+        Key key = primary == null ? Key.ID : SORT_KEYS.get(primary.getProperty());
+        if (key == null || (primary != null && primary.isIgnoreCase())) {
+            return Optional.empty();
+        }
+        boolean desc = primary != null && primary.isDescending();
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        int limit = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+
+        lock.readLock().lock();
+        try {
+            BitSet match = filter(filter);
+            int total = match == null ? size : match.cardinality();
+            List<CarDto> content = offset >= total
+                ? List.of()
+                : page(match, total, key, desc, (int) offset, (int) Math.min(limit, total - offset));
+            return Optional.of(new PageImpl<>(content, pageable, total));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---- query ----
+
+    /** Matching slots, or {@code null} when the filter restricts nothing. */
+    private BitSet filter(CarFilter f) {
+        boolean[] makeOk = null;
+        int makeMatches = Integer.MAX_VALUE;
+        if (f.make() != null) {
+            // как CarSpecifications: lower(make) LIKE %make% с экранированными % и _
+            String needle = f.make().toLowerCase(Locale.ROOT);
+            makeOk = new boolean[makeNamesLower.size()];
+            makeMatches = 0;
+            for (int m = 0; m < makeOk.length; m++) {
+                if (makeNamesLower.get(m).contains(needle)) {
+                    makeOk[m] = true;
+                    makeMatches += makeCounts[m];
+                }
+            }
+        }
+        boolean byYear = f.yearFrom() != null || f.yearTo() != null;
+        boolean byPrice = f.priceFrom() != null || f.priceTo() != null;
+        if (makeOk == null && !byYear && !byPrice) {
+            return null;
+        }
+        int yearFrom = f.yearFrom() == null ? Integer.MIN_VALUE : f.yearFrom();
+        int yearTo = f.yearTo() == null ? Integer.MAX_VALUE : f.yearTo();
+        int priceFrom = f.priceFrom() == null ? Integer.MIN_VALUE : f.priceFrom();
+        int priceTo = f.priceTo() == null ? Integer.MAX_VALUE : f.priceTo();
+
+        int[] yearPerm = order[Key.YEAR.ordinal()];
+        int[] pricePerm = order[Key.PRICE.ordinal()];
+        int yearLo = lowerBound(yearPerm, years, yearFrom);
+        int yearHi = yearTo == Integer.MAX_VALUE ? size : lowerBound(yearPerm, years, yearTo + 1);
+        int priceLo = lowerBound(pricePerm, prices, priceFrom);
+        int priceHi = priceTo == Integer.MAX_VALUE ? size : lowerBound(pricePerm, prices, priceTo + 1);
+
+        BitSet out = new BitSet(slotCount);
+        int yearCount = byYear ? Math.max(0, yearHi - yearLo) : Integer.MAX_VALUE;
+        int priceCount = byPrice ? Math.max(0, priceHi - priceLo) : Integer.MAX_VALUE;
+        // Русский коммент: ведём по самому селективному предикату, остальные проверяем по колонкам
+        if (makeOk != null && makeMatches <= yearCount && makeMatches <= priceCount) {
+            for (int m = 0; m < makeOk.length; m++) {
+                if (!makeOk[m]) {
+                    continue;
+                }
+                BitSet slots = slotsByMake.get(m);
+                for (int s = slots.nextSetBit(0); s >= 0; s = slots.nextSetBit(s + 1)) {
+                    if (years[s] >= yearFrom && years[s] <= yearTo && prices[s] >= priceFrom && prices[s] <= priceTo) {
+                        out.set(s);
+                    }
+                }
+            }
+        } else if (yearCount <= priceCount) {
+            for (int p = yearLo; p < yearHi; p++) {
+                int s = yearPerm[p];
+                if (prices[s] >= priceFrom && prices[s] <= priceTo && (makeOk == null || makeOk[makeIds[s]])) {
+                    out.set(s);
+                }
+            }
+        } else {
+            for (int p = priceLo; p < priceHi; p++) {
+                int s = pricePerm[p];
+                if (years[s] >= yearFrom && years[s] <= yearTo && (makeOk == null || makeOk[makeIds[s]])) {
+                    out.set(s);
+                }
+            }
+        }
+        return out;
+    }
+
+    private List<CarDto> page(BitSet match, int total, Key key, boolean desc, int offset, int limit) {
+        List<CarDto> out = new ArrayList<>(limit);
+        int[] perm = order[key.ordinal()];
+        if (match == null) {
+            // без фильтра страница — просто отрезок перестановки
+            for (int i = offset; i < offset + limit; i++) {
+                out.add(rows[perm[desc ? size - 1 - i : i]]);
+            }
+            return out;
+        }
+        if (total <= size / SPARSE_DIVISOR) {
+            Integer[] slots = new Integer[total];
+            int n = 0;
+            for (int s = match.nextSetBit(0); s >= 0; s = match.nextSetBit(s + 1)) {
+                slots[n++] = s;
+            }
+            Arrays.sort(slots, desc ? (a, b) -> compare(key, b, a) : (a, b) -> compare(key, a, b));
+            for (int i = offset; i < offset + limit; i++) {
+                out.add(rows[slots[i]]);
+            }
+            return out;
+        }
+        int skipped = 0;
+        for (int i = 0; i < size && out.size() < limit; i++) {
+            int s = perm[desc ? size - 1 - i : i];
+            if (match.get(s)) {
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    out.add(rows[s]);
+                }
+            }
+        }
+        return out;
+    }
+
+    /** First position in {@code perm} whose column value is {@code >= value}. */
+    private int lowerBound(int[] perm, int[] column, int value) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (column[perm[mid]] < value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // ---- maintenance ----
+
+    private int allocate() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount == ids.length) {
+            int cap = ids.length * 2;
+            ids = Arrays.copyOf(ids, cap);
+            createdAt = Arrays.copyOf(createdAt, cap);
+            years = Arrays.copyOf(years, cap);
+            prices = Arrays.copyOf(prices, cap);
+            makeIds = Arrays.copyOf(makeIds, cap);
+            rows = Arrays.copyOf(rows, cap);
+            for (Key key : Key.values()) {
+                order[key.ordinal()] = Arrays.copyOf(order[key.ordinal()], cap);
+            }
+        }
+        return slotCount++;
+    }
+
+    private void write(int slot, CarDto car) {
+        ids[slot] = car.id();
+        createdAt[slot] = car.createdAt() == null ? Long.MIN_VALUE : toMicros(car.createdAt());
+        years[slot] = car.year();
+        prices[slot] = car.priceEur();
+        makeIds[slot] = makeId(car.make());
+        rows[slot] = car;
+    }
+
+    private int makeId(String make) {
+        Integer id = makeIdByName.get(make);
+        if (id == null) {
+            id = makeNamesLower.size();
+            makeIdByName.put(make, id);
+            makeNamesLower.add(make.toLowerCase(Locale.ROOT));
+            slotsByMake.add(new BitSet());
+            if (id == makeCounts.length) {
+                makeCounts = Arrays.copyOf(makeCounts, id * 2);
+            }
+        }
+        return id;
+    }
+
+    private void linkMake(int slot) {
+        slotsByMake.get(makeIds[slot]).set(slot);
+        makeCounts[makeIds[slot]]++;
+    }
+
+    private void unlinkMake(int slot) {
+        slotsByMake.get(makeIds[slot]).clear(slot);
+        makeCounts[makeIds[slot]]--;
+    }
+
+    /** Inserts {@code slot} into every permutation, growing them by one. */
+    private void linkOrder(int slot) {
+        int n = size;
+        for (Key key : Key.values()) {
+            int[] perm = order[key.ordinal()];
+            int lo = 0;
+            int hi = n;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (compare(key, perm[mid], slot) < 0) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            System.arraycopy(perm, lo, perm, lo + 1, n - lo);
+            perm[lo] = slot;
+        }
+        size++;
+    }
+
+    /** Removes {@code slot} from every permutation, shrinking them by one; must run before its columns change. */
+    private void unlinkOrder(int slot) {
+        for (Key key : Key.values()) {
+            int[] perm = order[key.ordinal()];
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (compare(key, perm[mid], slot) < 0) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            if (lo == size || perm[lo] != slot) {
+                throw new IllegalStateException("Listing index out of order for car " + ids[slot]);
+            }
+            System.arraycopy(perm, lo + 1, perm, lo, size - lo - 1);
+        }
+        size--;
+    }
+
+    private int compare(Key key, int a, int b) {
+        int c = switch (key) {
+            case ID -> 0;
+            case CREATED_AT -> Long.compare(createdAt[a], createdAt[b]);
+            case PRICE -> Integer.compare(prices[a], prices[b]);
+            case YEAR -> Integer.compare(years[a], years[b]);
+        };
+        return c != 0 ? c : Long.compare(ids[a], ids[b]);
+    }
+
+    private static long toMicros(OffsetDateTime t) {
+        var instant = t.toInstant();
+        return instant.getEpochSecond() * 1_000_000L + instant.getNano() / 1_000;
+    }
+
+    /** Ids in index order for {@code key}; for tests. */
+    long[] idsBy(Key key) {
+        lock.readLock().lock();
+        try {
+            long[] out = new long[size];
+            int[] perm = order[key.ordinal()];
+            for (int i = 0; i < size; i++) {
+                out[i] = ids[perm[i]];
+            }
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.automarket.service;
+
+import com.automarket.config.CacheConfig;
+import com.automarket.domain.Car;
+import com.automarket.dto.CarDto;
+import com.automarket.dto.CarEventDto;
+import com.automarket.dto.CarFilter;
+import com.automarket.dto.CarSummaryDto;
+import com.automarket.events.CarEventsCommitted;
+import com.automarket.repository.CarRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Keeps a {@link ListingIndex} and a {@link SimilarCarsIndex} of the whole catalogue in sync and
+ * answers list and "similar cars" queries from them.
+ * Changes arrive through the outbox ({@link CarEventsCommitted}, on every instance), and the
+ * changed rows are re-read by id; a periodic full rebuild repairs anything missed. The first
+ * load runs on the scheduler, not during startup; until it finishes, or with
+ * {@code app.listing-index.enabled=false}, every query goes to the database.
+ * <p>
+ * The index learns of a write only when the dispatcher's next poll picks it up, while the
+ * writer evicts {@link CacheConfig#CAR_PAGES} at commit; a list page served from the index in
+ * between would be cached for the full page TTL. Applying the events therefore evicts the page
+ * cache again, which bounds the staleness of a cached page to the dispatcher poll interval.
+ * <p>
+ * Reads run in read-write transactions on purpose: with a read replica configured, replica
+ * lag would otherwise re-index the state from before the change an event just announced.
+ */
+@Service
+public class ListingIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(ListingIndexService.class);
+
+    private static final int FETCH_SIZE = 1000;
+    private static final Sort BY_ID = Sort.by("id");
+
+    private final CarRepository repo;
+    private final CarMapper mapper;
+    private final boolean enabled;
+    private final Counter hits;
+    private final Counter fallbacks;
+    private final Timer rebuildTimer;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /** Both indexes are swapped together so a rebuild never pairs a fresh one with a stale one. */
+    private record Indexes(ListingIndex listing, SimilarCarsIndex similar) {}
+
+    private volatile Indexes indexes;
+    /** Ids changed while a rebuild was reading; re-applied to the fresh indexes after the swap. */
+    private volatile Set<Long> changedDuringRebuild;
+
+    public ListingIndexService(CarRepository repo, CarMapper mapper, MeterRegistry registry,
+                               @Value("${app.listing-index.enabled:true}") boolean enabled) {
+        this.repo = repo;
+        this.mapper = mapper;
+        this.enabled = enabled;
+        this.hits = registry.counter("listing.index.queries", "outcome", "hit");
+        this.fallbacks = registry.counter("listing.index.queries", "outcome", "fallback");
+        this.rebuildTimer = registry.timer("listing.index.rebuild");
+        Gauge.builder("listing.index.rows", this, s -> s.indexes == null ? 0 : s.indexes.listing().size())
+            .register(registry);
+    }
+
+    /** The page from memory, or empty when the index is not loaded or cannot serve the query. */
+    public Optional<Page<CarDto>> query(CarFilter filter, Pageable pageable) {
+        Indexes current = indexes;
+        Optional<Page<CarDto>> page = current == null ? Optional.empty() : current.listing().query(filter, pageable);
+        (page.isPresent() ? hits : fallbacks).increment();
+        return page;
+    }
+
+    /** Nearest listings of the same make; empty when the index is not loaded or the car is not in it yet. */
+    public Optional<List<CarSummaryDto>> similarTo(long id, int k) {
+        Indexes current = indexes;
+        return current == null ? Optional.empty() : current.similar().similarTo(id, k);
+    }
+
+    /** Nearest listings to a car that is not indexed yet; empty when the index is not loaded. */
+    public Optional<List<CarSummaryDto>> similar(CarDto car, int k) {
+        Indexes current = indexes;
+        return current == null ? Optional.empty()
+            : Optional.of(current.similar().similar(car.make(), car.model(), car.year(), car.priceEur(), car.id(), k));
+    }
+
+    @Scheduled(fixedDelayString = "${app.listing-index.rebuild-interval}")
+    @Transactional
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        Set<Long> changed = ConcurrentHashMap.newKeySet();
+        changedDuringRebuild = changed;
+        Indexes fresh;
+        try {
+            List<CarDto> all = new ArrayList<>();
+            rebuildTimer.record(() -> read((root, q, cb) -> null, all::add));
+            fresh = new Indexes(ListingIndex.build(all),
+                SimilarCarsIndex.build(all.stream().map(mapper::toSummary).toList()));
+            indexes = fresh;
+        } finally {
+            changedDuringRebuild = null;
+        }
+        if (!changed.isEmpty()) {
+            refresh(fresh, changed);
+        }
+        log.debug("Listing index rebuilt: {} rows", fresh.listing().size());
+    }
+
+    @EventListener
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CAR_PAGES, allEntries = true)
+    public void onCommitted(CarEventsCommitted committed) {
+        Indexes current = indexes;
+        Set<Long> pending = changedDuringRebuild;
+        if (current == null && pending == null) {
+            return;
+        }
+        Set<Long> changed = new HashSet<>();
+        for (CarEventDto e : committed.events()) {
+            changed.add(e.carId());
+        }
+        if (pending != null) {
+            pending.addAll(changed);
+        }
+        if (current != null) {
+            refresh(current, changed);
+        }
+    }
+
+    // Русский коммент: перечитываем по id — в событии нет описания и продавца; не найденные строки удалены
+    private void refresh(Indexes target, Collection<Long> ids) {
+        Set<Long> missing = new HashSet<>(ids);
+        read(CarSpecifications.ids(ids), car -> {
+            missing.remove(car.id());
+            target.listing().upsert(car);
+            target.similar().upsert(mapper.toSummary(car));
+        });
+        for (Long id : missing) {
+            target.listing().remove(id);
+            target.similar().remove(id);
+        }
+    }
+
+    private void read(Specification<Car> spec, Consumer<CarDto> sink) {
+        try (Stream<Car> rows = repo.stream(spec, BY_ID, FETCH_SIZE)) {
+            Iterator<Car> it = rows.iterator();
+            while (it.hasNext()) {
+                Car car = it.next();
+                sink.accept(mapper.toDto(car));
+                em.detach(car);
+            }
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.automarket.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory index of saved searches answering "which searches match this car?" without
+ * running any query.
+ * <p>
+ * Searches are bucketed by their make term ({@code ""} = any make). A car's make selects its
+ * buckets: the list endpoint matches make as a case-insensitive substring, so the buckets for
+ * a given car make are found by testing the (few) distinct terms once and memoising the result.
+ * Inside a bucket, price ranges are held in a static interval tree (intervals sorted by lower
+ * bound, implicit balanced tree over the array, each node augmented with the max upper bound
+ * of its subtree) so a stabbing query costs O(log n + matches); the year range is checked on
+ * each price hit. Additions go to a small per-bucket delta that is scanned linearly and merged
+ * into the tree once it grows; removals are tombstones until the next rebuild.
+ */
+public class SavedSearchIndex {
+
+    /** A saved search as seen by the index; null bounds are open. */
+    public record Entry(long id, String make, Integer yearFrom, Integer yearTo, Integer priceFrom, Integer priceTo) {
+
+        boolean matchesYear(int year) {
+            return (yearFrom == null || year >= yearFrom) && (yearTo == null || year <= yearTo);
+        }
+
+        boolean matchesPrice(int price) {
+            return lo() <= price && price <= hi();
+        }
+
+        int lo() {
+            return priceFrom == null ? Integer.MIN_VALUE : priceFrom;
+        }
+
+        int hi() {
+            return priceTo == null ? Integer.MAX_VALUE : priceTo;
+        }
+    }
+
+    static final int DELTA_LIMIT = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Bucket> buckets = new HashMap<>();
+    private final Map<Long, String> termById = new HashMap<>();
+    /** car make (lower case) → buckets whose term it contains; cleared when the term set changes. */
+    private final Map<String, List<Bucket>> bucketsByCarMake = new ConcurrentHashMap<>();
+
+    /** Replaces the whole index, e.g. on startup or periodic reconciliation. */
+    public void reset(List<Entry> entries) {
+        Map<String, List<Entry>> grouped = new HashMap<>();
+        for (Entry e : entries) {
+            grouped.computeIfAbsent(term(e.make()), k -> new ArrayList<>()).add(e);
+        }
+        lock.writeLock().lock();
+        try {
+            buckets.clear();
+            termById.clear();
+            grouped.forEach((term, list) -> {
+                Bucket b = new Bucket(term);
+                b.rebuild(list);
+                buckets.put(term, b);
+                list.forEach(e -> termById.put(e.id(), term));
+            });
+            bucketsByCarMake.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void add(Entry e) {
+        String term = term(e.make());
+        lock.writeLock().lock();
+        try {
+            if (termById.containsKey(e.id())) {
+                return;
+            }
+            Bucket b = buckets.get(term);
+            if (b == null) {
+                b = new Bucket(term);
+                buckets.put(term, b);
+                bucketsByCarMake.clear();
+            }
+            b.add(e);
+            termById.put(e.id(), term);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            String term = termById.remove(id);
+            if (term != null) {
+                buckets.get(term).remove(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return termById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Calls {@code sink} with the id of every saved search the car matches. */
+    public void match(String make, int year, int priceEur, Consumer<Long> sink) {
+        lock.readLock().lock();
+        try {
+            for (Bucket b : bucketsFor(make == null ? "" : make.toLowerCase())) {
+                b.stab(priceEur, e -> {
+                    if (e.matchesYear(year)) {
+                        sink.accept(e.id());
+                    }
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Вызывается под read-lock; мемо чистится только под write-lock
+    private List<Bucket> bucketsFor(String carMake) {
+        return bucketsByCarMake.computeIfAbsent(carMake, m -> {
+            List<Bucket> out = new ArrayList<>();
+            for (Bucket b : buckets.values()) {
+                if (m.contains(b.term)) {
+                    out.add(b);
+                }
+            }
+            return out;
+        });
+    }
+
+    private static String term(String make) {
+        return make == null || make.isBlank() ? "" : make.trim().toLowerCase();
+    }
+
+    private static final class Bucket {
+
+        final String term;
+        Entry[] tree = new Entry[0];
+        int[] maxHi = new int[0];
+        final List<Entry> delta = new ArrayList<>();
+        final Set<Long> removed = new HashSet<>();
+
+        Bucket(String term) {
+            this.term = term;
+        }
+
+        void add(Entry e) {
+            removed.remove(e.id());
+            delta.add(e);
+            if (delta.size() >= DELTA_LIMIT) {
+                List<Entry> all = new ArrayList<>(tree.length + delta.size());
+                for (Entry t : tree) {
+                    if (!removed.contains(t.id())) {
+                        all.add(t);
+                    }
+                }
+                all.addAll(delta);
+                rebuild(all);
+            }
+        }
+
+        void remove(long id) {
+            if (!delta.removeIf(e -> e.id() == id)) {
+                removed.add(id);
+            }
+            if (removed.size() > Math.max(DELTA_LIMIT, tree.length / 4)) {
+                rebuild(new ArrayList<>(Arrays.stream(tree).filter(t -> !removed.contains(t.id())).toList()));
+            }
+        }
+
+        void rebuild(List<Entry> entries) {
+            entries.sort(Comparator.comparingInt(Entry::lo));
+            tree = entries.toArray(Entry[]::new);
+            maxHi = new int[tree.length];
+            augment(0, tree.length);
+            delta.clear();
+            removed.clear();
+        }
+
+        private int augment(int from, int to) {
+            if (from >= to) {
+                return Integer.MIN_VALUE;
+            }
+            int mid = (from + to) >>> 1;
+            int max = Math.max(tree[mid].hi(), Math.max(augment(from, mid), augment(mid + 1, to)));
+            maxHi[mid] = max;
+            return max;
+        }
+
+        void stab(int price, Consumer<Entry> sink) {
+            stab(0, tree.length, price, sink);
+            for (Entry e : delta) {
+                if (e.matchesPrice(price)) {
+                    sink.accept(e);
+                }
+            }
+        }
+
+        private void stab(int from, int to, int price, Consumer<Entry> sink) {
+            if (from >= to) {
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            if (maxHi[mid] < price) {
+                return;
+            }
+            stab(from, mid, price, sink);
+            Entry e = tree[mid];
+            if (e.lo() <= price) {
+                if (price <= e.hi() && (removed.isEmpty() || !removed.contains(e.id()))) {
+                    sink.accept(e);
+                }
+                // Правее только интервалы с lo >= e.lo; если e.lo > price — там тоже нечего искать
+                stab(mid + 1, to, price, sink);
+            }
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.automarket.service;
+
+import com.automarket.domain.SavedSearch;
+import com.automarket.dto.CarEventDto;
+import com.automarket.dto.CarSummaryDto;
+import com.automarket.dto.SavedSearchCreateDto;
+import com.automarket.dto.SavedSearchDto;
+import com.automarket.dto.SavedSearchMatchDto;
+import com.automarket.events.CarEventDispatcher;
+import com.automarket.events.CarEventsCommitted;
+import com.automarket.exception.BadRequestException;
+import com.automarket.media.Thumbnails;
+import com.automarket.repository.SavedSearchRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Saved searches and their matches. New and updated listings are matched against the
+ * in-memory {@link SavedSearchIndex} as the outbox dispatcher reports committed changes;
+ * matches are recorded idempotently, so several instances may process the same event.
+ * <p>
+ * The dispatcher only reports changes committed after it started, so the outbox position
+ * matched so far is kept in {@code saved_search_cursor}, and each instance replays the outbox
+ * from there once at startup ({@link #catchUp}). Changes made during a full outage are thus
+ * matched late instead of never, as long as the outage is shorter than
+ * {@code app.events.retention}; older outbox rows are purged and those changes stay unmatched.
+ */
+@Service
+@Transactional
+public class SavedSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(SavedSearchService.class);
+
+    static final int MAX_PER_USER = 50;
+
+    private final SavedSearchRepository repo;
+    private final JdbcTemplate jdbc;
+    private final CarEventDispatcher dispatcher;
+    private final SavedSearchIndex index = new SavedSearchIndex();
+    private final Timer matchTimer;
+    private final String mediaUrl;
+
+    private volatile boolean loaded;
+    /** Guards the switch from catch-up to live matching; see {@link #catchUp}. */
+    private final Object readiness = new Object();
+    private volatile boolean caughtUp;
+    private long skipped;
+
+    public SavedSearchService(SavedSearchRepository repo, JdbcTemplate jdbc, CarEventDispatcher dispatcher,
+                              MeterRegistry registry, @Value("${app.media.public-url}") String mediaUrl) {
+        this.repo = repo;
+        this.jdbc = jdbc;
+        this.dispatcher = dispatcher;
+        this.mediaUrl = mediaUrl;
+        this.matchTimer = registry.timer("saved_search.match");
+        registry.gauge("saved_search.indexed", index, SavedSearchIndex::size);
+    }
+
+    @Transactional(readOnly = true)
+    public List<SavedSearchDto> mine() {
+        return repo.findByOwnerUidOrderByCreatedAtDesc(requireUid()).stream().map(SavedSearchService::toDto).toList();
+    }
+
+    public SavedSearchDto create(SavedSearchCreateDto dto) {
+        String uid = requireUid();
+        if (repo.countByOwnerUid(uid) >= MAX_PER_USER) {
+            throw new BadRequestException("At most " + MAX_PER_USER + " saved searches per user");
+        }
+        SavedSearch s = new SavedSearch();
+        s.setOwnerUid(uid);
+        s.setName(dto.name());
+        s.setMake(dto.make() == null || dto.make().isBlank() ? null : dto.make().trim());
+        s.setYearFrom(dto.yearFrom());
+        s.setYearTo(dto.yearTo());
+        s.setPriceFrom(dto.priceFrom());
+        s.setPriceTo(dto.priceTo());
+        s = repo.save(s);
+        // Русский коммент: в индекс сразу; при откате транзакции лишняя запись отсеется на вставке матча
+        index.add(toEntry(s));
+        return toDto(s);
+    }
+
+    public void delete(Long id) {
+        SavedSearch s = repo.findById(id).orElseThrow();
+        if (!s.getOwnerUid().equals(requireUid())) {
+            throw new AccessDeniedException("Not owner");
+        }
+        repo.delete(s);
+        index.remove(id);
+    }
+
+    @Transactional(readOnly = true)
+    public List<SavedSearchMatchDto> matches(int limit) {
+        return jdbc.query("""
+            SELECT m.search_id, s.name, m.matched_at,
+                   c.id, c.make, c.model, c.year, c.price_eur, c.image_url, c.thumbnail_key, c.created_at, c.version
+            FROM saved_search_match m
+            JOIN saved_search s ON s.id = m.search_id
+            JOIN car c ON c.id = m.car_id
+            WHERE s.owner_uid = ?
+            ORDER BY m.matched_at DESC
+            LIMIT ?
+            """,
+            (rs, i) -> new SavedSearchMatchDto(
+                rs.getLong("search_id"),
+                rs.getString("name"),
+                rs.getObject("matched_at", OffsetDateTime.class),
+                new CarSummaryDto(
+                    rs.getLong("id"),
+                    rs.getString("make"),
+                    rs.getString("model"),
+                    rs.getInt("year"),
+                    rs.getInt("price_eur"),
+                    rs.getString("image_url"),
+                    Thumbnails.url(mediaUrl, rs.getString("thumbnail_key")),
+                    rs.getObject("created_at", OffsetDateTime.class),
+                    rs.getLong("version"))),
+            requireUid(), Math.max(1, Math.min(limit, 200)));
+    }
+
+    /**
+     * Live batches from the dispatcher. Until the index is loaded and {@link #catchUp} has
+     * run they are skipped: matching them against an empty index would lose their matches,
+     * and advancing the shared cursor would move it past the backlog the catch-up replays.
+     * The replay covers them, since it reads everything committed up to its own horizon.
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onCommitted(CarEventsCommitted committed) {
+        synchronized (readiness) {
+            if (!caughtUp) {
+                skipped++;
+                return;
+            }
+        }
+        match(committed);
+    }
+
+    /**
+     * Replays the outbox from {@code saved_search_cursor} once the index is loaded, matching
+     * the changes no running instance saw. Live batches skipped meanwhile trigger another
+     * pass, so none of them falls between the replay's horizon and the switch to live
+     * matching. Retried on the next tick if the database is not reachable yet.
+     */
+    @Scheduled(fixedDelayString = "${app.events.poll-interval}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void catchUp() {
+        if (caughtUp || !loaded) {
+            return;
+        }
+        long replayed = 0;
+        while (true) {
+            long skippedBefore;
+            synchronized (readiness) {
+                skippedBefore = skipped;
+            }
+            var cursor = jdbc.queryForMap("SELECT tx_id::text AS tx, event_id FROM saved_search_cursor");
+            long[] count = {0};
+            dispatcher.replay((String) cursor.get("tx"), ((Number) cursor.get("event_id")).longValue(), batch -> {
+                count[0] += batch.events().size();
+                match(batch);
+            });
+            replayed += count[0];
+            synchronized (readiness) {
+                if (skipped == skippedBefore) {
+                    caughtUp = true;
+                    break;
+                }
+            }
+        }
+        if (replayed > 0) {
+            log.info("Saved searches caught up on {} car events committed before startup", replayed);
+        }
+    }
+
+    private void match(CarEventsCommitted committed) {
+        List<Object[]> rows = new ArrayList<>();
+        matchTimer.record(() -> {
+            for (CarEventDto e : committed.events()) {
+                if ("DELETED".equals(e.type())) {
+                    continue;
+                }
+                CarSummaryDto car = e.car();
+                index.match(car.make(), car.year(), car.priceEur(),
+                    searchId -> rows.add(new Object[]{searchId, car.id(), searchId, car.id()}));
+            }
+        });
+        try {
+            if (!rows.isEmpty()) {
+                // EXISTS: поиск мог быть удалён на другом инстансе (а у нас ещё в индексе), машина — после события
+                jdbc.batchUpdate("""
+                    INSERT INTO saved_search_match (search_id, car_id)
+                    SELECT ?, ?
+                    WHERE EXISTS (SELECT 1 FROM saved_search WHERE id = ?)
+                      AND EXISTS (SELECT 1 FROM car WHERE id = ?)
+                    ON CONFLICT DO NOTHING
+                    """, rows);
+            }
+            // Русский коммент: курсор общий — двигаем только вперёд, отстающий инстанс его не откатит
+            jdbc.update("""
+                UPDATE saved_search_cursor SET tx_id = CAST(? AS text)::xid8, event_id = ?
+                WHERE (tx_id, event_id) < (CAST(? AS text)::xid8, ?)
+                """, committed.lastTxId(), committed.lastEventId(), committed.lastTxId(), committed.lastEventId());
+        } catch (RuntimeException ex) {
+            log.warn("Recording {} saved search matches failed: {}", rows.size(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Loads the index on a scheduler thread right after startup (so readiness does not wait
+     * for it) and rebuilds it periodically, which also picks up searches created or deleted
+     * on other instances.
+     */
+    @Scheduled(fixedDelayString = "${app.saved-search.reload-interval}")
+    @Transactional(readOnly = true)
+    public void reload() {
+        try (var all = repo.streamAllBy()) {
+            List<SavedSearchIndex.Entry> entries = all.map(SavedSearchService::toEntry).toList();
+            index.reset(entries);
+            loaded = true;
+            log.debug("Saved search index loaded: {} entries", entries.size());
+        }
+    }
+
+    private static SavedSearchIndex.Entry toEntry(SavedSearch s) {
+        return new SavedSearchIndex.Entry(s.getId(), s.getMake(), s.getYearFrom(), s.getYearTo(),
+            s.getPriceFrom(), s.getPriceTo());
+    }
+
+    private static SavedSearchDto toDto(SavedSearch s) {
+        return new SavedSearchDto(s.getId(), s.getName(), s.getMake(), s.getYearFrom(), s.getYearTo(),
+            s.getPriceFrom(), s.getPriceTo(), s.getCreatedAt());
+    }
+
+    private static String requireUid() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || auth.getPrincipal() == null) {
+            throw new AccessDeniedException("No auth");
+        }
+        return String.valueOf(auth.getPrincipal());
+    }
+}
@@ -0,0 +1,30 @@
+package com.automarket.service;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+public final class SearchQuery {
+
+    private static final int MAX_TERMS = 8;
+
+    private SearchQuery() {
+    }
+
+    /**
+     * Turns free text into a prefix-matching tsquery: {@code "bmw 3 ser"} becomes
+     * {@code "bmw:* & 3:* & ser:*"}. Only letters and digits survive, so user input can never
+     * inject tsquery operators. Returns {@code null} when nothing searchable is left.
+     */
+    public static String toPrefixTsQuery(String q) {
+        if (q == null) {
+            return null;
+        }
+        String tsQuery = Arrays.stream(q.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+            .filter(t -> !t.isEmpty())
+            .limit(MAX_TERMS)
+            .map(t -> t + ":*")
+            .collect(Collectors.joining(" & "));
+        return tsQuery.isEmpty() ? null : tsQuery;
+    }
+}
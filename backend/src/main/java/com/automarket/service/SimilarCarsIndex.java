@@ -0,0 +1,304 @@
+package com.automarket.service;
+
+import com.automarket.dto.CarSummaryDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Nearest-neighbour index behind "similar cars": listings are partitioned by make and placed on
+ * a sparse grid over (year, log price), so a lookup scans the cells around the car in growing
+ * rings instead of running range queries against the table.
+ * <p>
+ * Distance is Euclidean in normalized units, {@link #YEARS_PER_UNIT} years or a factor of
+ * {@link #PRICE_RATIO_PER_UNIT} in price each counting as one, plus {@link #MODEL_PENALTY}
+ * when the model differs. Grid cells are one unit wide, so every listing in ring {@code r}
+ * around the query cell is more than {@code r - 1} away and the search stops as soon as the
+ * k-th best score is within the bound of the next ring. Ties are broken by id.
+ */
+public final class SimilarCarsIndex {
+
+    static final double YEARS_PER_UNIT = 2.0;
+    static final double PRICE_RATIO_PER_UNIT = 1.25;
+    static final double MODEL_PENALTY = 1.0;
+
+    private static final double LOG_PRICE_UNIT = Math.log(PRICE_RATIO_PER_UNIT);
+    private static final Comparator<Hit> BEST_FIRST =
+        Comparator.comparingDouble(Hit::score).thenComparingLong(h -> h.car().id());
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, CarSummaryDto> byId = new HashMap<>();
+    private final Map<String, Partition> partitions = new HashMap<>();
+    private final Map<String, Integer> modelIds = new HashMap<>();
+
+    public static SimilarCarsIndex build(Collection<CarSummaryDto> cars) {
+        SimilarCarsIndex index = new SimilarCarsIndex();
+        for (CarSummaryDto car : cars) {
+            index.upsert(car);
+        }
+        return index;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Inserts or replaces a listing; an older state (lower version) than the one held is ignored. */
+    public void upsert(CarSummaryDto car) {
+        lock.writeLock().lock();
+        try {
+            CarSummaryDto old = byId.get(car.id());
+            if (old != null) {
+                if (old.version() > car.version()) {
+                    return;
+                }
+                unlink(old);
+            }
+            byId.put(car.id(), car);
+            partitions.computeIfAbsent(makeKey(car.make()), m -> new Partition()).add(car, modelId(car.model()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            CarSummaryDto old = byId.remove(id);
+            if (old != null) {
+                unlink(old);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Up to {@code k} listings most similar to listing {@code id}; empty if the id is not indexed. */
+    public Optional<List<CarSummaryDto>> similarTo(long id, int k) {
+        lock.readLock().lock();
+        try {
+            CarSummaryDto car = byId.get(id);
+            if (car == null) {
+                return Optional.empty();
+            }
+            return Optional.of(nearest(car.make(), car.model(), car.year(), car.priceEur(), id, k));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Up to {@code k} listings of the same make closest to the given attributes, excluding {@code excludeId}. */
+    public List<CarSummaryDto> similar(String make, String model, int year, int priceEur, long excludeId, int k) {
+        lock.readLock().lock();
+        try {
+            return nearest(make, model, year, priceEur, excludeId, k);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Similarity score between two listings of the same make; lower is more similar. */
+    static double score(String modelA, int yearA, int priceA, String modelB, int yearB, int priceB) {
+        double dx = x(yearA) - x(yearB);
+        double dy = y(priceA) - y(priceB);
+        boolean sameModel = modelKey(modelA).equals(modelKey(modelB));
+        return Math.sqrt(dx * dx + dy * dy) + (sameModel ? 0 : MODEL_PENALTY);
+    }
+
+    private List<CarSummaryDto> nearest(String make, String model, int year, int priceEur, long excludeId, int k) {
+        Partition partition = partitions.get(makeKey(make));
+        if (partition == null || k <= 0) {
+            return List.of();
+        }
+        Integer model0 = modelIds.get(modelKey(model));
+        int modelId = model0 == null ? -1 : model0;
+        double qx = x(year);
+        double qy = y(priceEur);
+        int cx = Partition.cell(qx);
+        int cy = Partition.cell(qy);
+        // Русский коммент: max-heap из k лучших; в вершине — худший из них
+        PriorityQueue<Hit> best = new PriorityQueue<>(k + 1, BEST_FIRST.reversed());
+        int maxRing = partition.maxRingFrom(cx, cy);
+        for (int r = 0; r <= maxRing; r++) {
+            for (int gx = cx - r; gx <= cx + r; gx++) {
+                // Русский коммент: по краям кольца — весь столбец, внутри — только верхняя и нижняя клетки
+                int step = gx == cx - r || gx == cx + r ? 1 : 2 * r;
+                for (int gy = cy - r; gy <= cy + r; gy += step) {
+                    Cell cell = partition.cells.get(Partition.key(gx, gy));
+                    if (cell != null) {
+                        cell.collect(qx, qy, modelId, excludeId, k, best);
+                    }
+                }
+            }
+            // Всё в кольце r + 1 дальше r
+            if (best.size() == k && best.peek().score() <= r) {
+                break;
+            }
+        }
+        Hit[] hits = best.toArray(Hit[]::new);
+        Arrays.sort(hits, BEST_FIRST);
+        List<CarSummaryDto> result = new ArrayList<>(hits.length);
+        for (Hit h : hits) {
+            result.add(h.car());
+        }
+        return result;
+    }
+
+    private void unlink(CarSummaryDto car) {
+        String make = makeKey(car.make());
+        Partition partition = partitions.get(make);
+        partition.remove(car);
+        if (partition.size == 0) {
+            partitions.remove(make);
+        }
+    }
+
+    private int modelId(String model) {
+        return modelIds.computeIfAbsent(modelKey(model), m -> modelIds.size());
+    }
+
+    private static String makeKey(String make) {
+        return make.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String modelKey(String model) {
+        return model.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static double x(int year) {
+        return year / YEARS_PER_UNIT;
+    }
+
+    private static double y(int priceEur) {
+        return Math.log(Math.max(priceEur, 1)) / LOG_PRICE_UNIT;
+    }
+
+    private record Hit(double score, CarSummaryDto car) {}
+
+    /** Listings of one make, bucketed by grid cell, with the occupied bounding box. */
+    private static final class Partition {
+
+        final Map<Long, Cell> cells = new HashMap<>();
+        int size;
+        int minX = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxY = Integer.MIN_VALUE;
+
+        static int cell(double coordinate) {
+            return (int) Math.floor(coordinate);
+        }
+
+        static long key(int gx, int gy) {
+            return ((long) gx << 32) | (gy & 0xffffffffL);
+        }
+
+        void add(CarSummaryDto car, int modelId) {
+            double px = x(car.year());
+            double py = y(car.priceEur());
+            int gx = cell(px);
+            int gy = cell(py);
+            cells.computeIfAbsent(key(gx, gy), c -> new Cell()).add(car, px, py, modelId);
+            size++;
+            // Русский коммент: рамка только растёт — после удалений поиск может пройти лишние пустые кольца
+            minX = Math.min(minX, gx);
+            maxX = Math.max(maxX, gx);
+            minY = Math.min(minY, gy);
+            maxY = Math.max(maxY, gy);
+        }
+
+        void remove(CarSummaryDto car) {
+            long key = key(cell(x(car.year())), cell(y(car.priceEur())));
+            Cell cell = cells.get(key);
+            if (cell != null && cell.remove(car.id())) {
+                size--;
+                if (cell.n == 0) {
+                    cells.remove(key);
+                }
+            }
+        }
+
+        /** Ring around (cx, cy) beyond which no occupied cell of this make can lie. */
+        int maxRingFrom(int cx, int cy) {
+            return Math.max(Math.max(cx - minX, maxX - cx), Math.max(cy - minY, maxY - cy));
+        }
+    }
+
+    /** Columnar contents of one grid cell; removal swaps the last entry into the gap. */
+    private static final class Cell {
+
+        int n;
+        long[] ids = new long[4];
+        double[] xs = new double[4];
+        double[] ys = new double[4];
+        int[] models = new int[4];
+        CarSummaryDto[] cars = new CarSummaryDto[4];
+
+        void add(CarSummaryDto car, double px, double py, int modelId) {
+            if (n == ids.length) {
+                int cap = n * 2;
+                ids = Arrays.copyOf(ids, cap);
+                xs = Arrays.copyOf(xs, cap);
+                ys = Arrays.copyOf(ys, cap);
+                models = Arrays.copyOf(models, cap);
+                cars = Arrays.copyOf(cars, cap);
+            }
+            ids[n] = car.id();
+            xs[n] = px;
+            ys[n] = py;
+            models[n] = modelId;
+            cars[n] = car;
+            n++;
+        }
+
+        boolean remove(long id) {
+            for (int i = 0; i < n; i++) {
+                if (ids[i] == id) {
+                    n--;
+                    ids[i] = ids[n];
+                    xs[i] = xs[n];
+                    ys[i] = ys[n];
+                    models[i] = models[n];
+                    cars[i] = cars[n];
+                    cars[n] = null;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void collect(double qx, double qy, int modelId, long excludeId, int k, PriorityQueue<Hit> best) {
+            for (int i = 0; i < n; i++) {
+                if (ids[i] == excludeId) {
+                    continue;
+                }
+                double dx = xs[i] - qx;
+                double dy = ys[i] - qy;
+                double score = Math.sqrt(dx * dx + dy * dy) + (models[i] == modelId ? 0 : MODEL_PENALTY);
+                if (best.size() < k) {
+                    best.add(new Hit(score, cars[i]));
+                } else {
+                    Hit worst = best.peek();
+                    if (score < worst.score() || (score == worst.score() && ids[i] < worst.car().id())) {
+                        best.poll();
+                        best.add(new Hit(score, cars[i]));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.automarket.web;
+
+import com.automarket.dto.BulkImportResult;
+import com.automarket.dto.CarFilter;
+import com.automarket.service.CarBulkService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.time.Duration;
+
+
+@RestController
+@RequestMapping("/api/cars")
+public class CarBulkController {
+
+    private static final String TEXT_CSV = "text/csv";
+
+    private final CarBulkService bulk;
+    private final long exportTimeoutMillis;
+
+    public CarBulkController(CarBulkService bulk,
+                             @Value("${app.bulk.export-timeout:30m}") Duration exportTimeout) {
+        this.bulk = bulk;
+        this.exportTimeoutMillis = exportTimeout.toMillis();
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('SELLER','ADMIN')")
+    public BulkImportResult importNdjson(HttpServletRequest request) throws IOException {
+        return bulk.importNdjson(request.getInputStream());
+    }
+
+    @PostMapping(value = "/bulk", consumes = TEXT_CSV)
+    @PreAuthorize("hasAnyRole('SELLER','ADMIN')")
+    public BulkImportResult importCsv(HttpServletRequest request) throws IOException {
+        return bulk.importCsv(request.getInputStream());
+    }
+
+    /**
+     * Streams every matching listing. The body is written asynchronously, so it is bounded by
+     * {@code app.bulk.export-timeout} (default 30m) rather than the 30s MVC async default; an export
+     * still running at the limit is cut off and its read-only cursor transaction rolled back.
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('SELLER','ADMIN')")
+    public ResponseEntity<StreamingResponseBody> export(
+        HttpServletRequest request,
+        @RequestParam(defaultValue = "ndjson") String format,
+        @RequestParam(required = false) String make,
+        @RequestParam(required = false) Integer yearFrom,
+        @RequestParam(required = false) Integer yearTo,
+        @RequestParam(required = false) Integer priceFrom,
+        @RequestParam(required = false) Integer priceTo
+    ) {
+        // Русский коммент: StreamingResponseBody берёт таймаут из AsyncWebRequest, выставляем свой до старта
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(exportTimeoutMillis);
+        var filter = new CarFilter(make, yearFrom, yearTo, priceFrom, priceTo, null);
+        if ("json".equalsIgnoreCase(format)) {
+            return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> bulk.exportJson(filter, out));
+        }
+        if ("csv".equalsIgnoreCase(format)) {
+            return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(TEXT_CSV + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=cars.csv")
+                .body(out -> bulk.exportCsv(filter, out));
+        }
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(out -> bulk.exportNdjson(filter, out));
+    }
+}
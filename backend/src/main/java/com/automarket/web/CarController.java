@@ -2,16 +2,33 @@ package com.automarket.web;
 
 import com.automarket.dto.CarCreateDto;
 import com.automarket.dto.CarDto;
+import com.automarket.dto.CarFacetsDto;
+import com.automarket.dto.CarFilter;
+import com.automarket.dto.CarSummaryDto;
 import com.automarket.dto.CarUpdateDto;
+import com.automarket.dto.PageDto;
+import com.automarket.dto.SliceDto;
+import com.automarket.dto.Versioned;
+import com.automarket.exception.PreconditionFailedException;
+import com.automarket.service.CarPatch;
 import com.automarket.service.CarService;
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 
@@ -19,32 +36,102 @@ import java.util.NoSuchElementException;
 @RequestMapping("/api/cars")
 public class CarController {
 
+    private static final Logger log = LoggerFactory.getLogger(CarController.class);
+
+    private static final String MERGE_PATCH_JSON = "application/merge-patch+json";
+
     private final CarService service;
+    private final Validator validator;
 
-    public CarController(CarService service) {
+    public CarController(CarService service, Validator validator) {
         this.service = service;
+        this.validator = validator;
     }
 
 
+    /**
+     * {@code view=summary} returns {@link CarSummaryDto} rows (no description) selected
+     * directly from the table, for grid views.
+     */
     @GetMapping
-    public Page<CarDto> list(
+    public ResponseEntity<PageDto<? extends Versioned>> list(
         @RequestParam(required = false) String make,
         @RequestParam(required = false) Integer yearFrom,
         @RequestParam(required = false) Integer yearTo,
         @RequestParam(required = false) Integer priceFrom,
         @RequestParam(required = false) Integer priceTo,
+        @RequestParam(required = false) String q,
+        @RequestParam(defaultValue = "full") String view,
         Pageable pageable
     ) {
-        return service.findAll(make, yearFrom, yearTo, priceFrom, priceTo, pageable);
+        var filter = new CarFilter(make, yearFrom, yearTo, priceFrom, priceTo, q);
+        Page<? extends Versioned> page = "summary".equalsIgnoreCase(view)
+            ? service.findSummaries(filter, pageable)
+            : service.findAll(filter, pageable);
+        // Русский коммент: If-None-Match → 304 без сериализации (HttpEntityMethodProcessor)
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noCache())
+            .eTag(ETags.of(page))
+            .varyBy(HttpHeaders.ACCEPT)
+            .body(PageDto.of(page));
+    }
+
+    /**
+     * Result counts per make, 5-year bucket and price bucket for the given filters,
+     * computed in one grouped query.
+     */
+    @GetMapping("/facets")
+    public CarFacetsDto facets(
+        @RequestParam(required = false) String make,
+        @RequestParam(required = false) Integer yearFrom,
+        @RequestParam(required = false) Integer yearTo,
+        @RequestParam(required = false) Integer priceFrom,
+        @RequestParam(required = false) Integer priceTo,
+        @RequestParam(required = false) String q
+    ) {
+        return service.facets(new CarFilter(make, yearFrom, yearTo, priceFrom, priceTo, q));
+    }
+
+    /**
+     * Keyset ("infinite scroll") mode: no OFFSET and no count query, so every page costs the same.
+     * Pass the returned {@code next} token as {@code after} to continue.
+     */
+    @GetMapping("/scroll")
+    public SliceDto<CarDto> scroll(
+        @RequestParam(required = false) String make,
+        @RequestParam(required = false) Integer yearFrom,
+        @RequestParam(required = false) Integer yearTo,
+        @RequestParam(required = false) Integer priceFrom,
+        @RequestParam(required = false) Integer priceTo,
+        @RequestParam(required = false) String after,
+        @RequestParam(defaultValue = "createdAt,desc") String sort,
+        @RequestParam(defaultValue = "20") int size
+    ) {
+        return service.scroll(new CarFilter(make, yearFrom, yearTo, priceFrom, priceTo, null), after, sort, size);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<CarDto> byId(@PathVariable Long id) {
         return service.findById(id)
-            .map(ResponseEntity::ok)
+            .map(car -> ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(ETags.of(car))
+                .lastModified(car.updatedAt().toInstant())
+                .body(car))
             .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * "Similar cars" for a listing page: up to {@code k} listings of the same make, closest in
+     * model, year and price, answered from memory.
+     */
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<List<CarSummaryDto>> similar(@PathVariable Long id,
+                                                       @RequestParam(defaultValue = "8") int k) {
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.maxAge(Duration.ofSeconds(60)))
+            .body(service.similar(id, k));
+    }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -55,21 +142,47 @@ public class CarController {
 
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('SELLER','ADMIN')")
-    public ResponseEntity<?> update(@PathVariable Long id, @Valid @RequestBody CarUpdateDto body) {
+    public ResponseEntity<?> update(@PathVariable Long id,
+                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                    @Valid @RequestBody CarUpdateDto body) {
         try {
-            return ResponseEntity.ok(service.update(id, body));
+            CarDto car = service.update(id, body, ETags.expectedVersion(ifMatch, id));
+            return ResponseEntity.ok()
+                .eTag(ETags.of(car))
+                .lastModified(car.updatedAt().toInstant())
+                .body(car);
+        } catch (PreconditionFailedException ex) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body("Precondition Failed");
+        } catch (OptimisticLockingFailureException ex) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Conflict");
         } catch (NoSuchElementException ex) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Car not found");
         } catch (org.springframework.security.access.AccessDeniedException ex) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Forbidden");
         } catch (Exception ex) {
-            ex.printStackTrace();
+            log.error("Updating car {} failed", id, ex);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ex.getMessage());
         }
     }
 
 
 
+    /**
+     * JSON Merge Patch (RFC 7386): only the members present in the body change, {@code null}
+     * clears {@code description}. Honours {@code If-Match} like PUT.
+     */
+    @PatchMapping(path = "/{id}", consumes = {MERGE_PATCH_JSON, "application/json"})
+    @PreAuthorize("hasAnyRole('SELLER','ADMIN')")
+    public ResponseEntity<CarDto> patch(@PathVariable Long id,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                        @RequestBody JsonNode body) {
+        CarDto car = service.patch(id, CarPatch.fromMergePatch(body, validator), ETags.expectedVersion(ifMatch, id));
+        return ResponseEntity.ok()
+            .eTag(ETags.of(car))
+            .lastModified(car.updatedAt().toInstant())
+            .body(car);
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAnyRole('SELLER','ADMIN')")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
@@ -0,0 +1,45 @@
+package com.automarket.web;
+
+import com.automarket.events.CarEventFilter;
+import com.automarket.events.CarEventHub;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+
+
+@RestController
+@RequestMapping("/api/cars")
+public class CarEventsController {
+
+    private final CarEventHub hub;
+    private final long timeoutMillis;
+
+    public CarEventsController(CarEventHub hub,
+                               @Value("${app.events.connection-timeout}") Duration timeout) {
+        this.hub = hub;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    /**
+     * Live CREATED / UPDATED / DELETED events for listings matching the filter. Browsers
+     * reconnect on their own and send {@code Last-Event-ID}, which resumes the stream.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(
+        @RequestParam(required = false) String make,
+        @RequestParam(required = false) Integer priceFrom,
+        @RequestParam(required = false) Integer priceTo,
+        @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId
+    ) {
+        SseEmitter emitter = hub.subscribe(new CarEventFilter(make, priceFrom, priceTo), lastEventId, timeoutMillis);
+        if (emitter == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many event subscribers");
+        }
+        return emitter;
+    }
+}
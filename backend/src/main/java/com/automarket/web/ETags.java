@@ -0,0 +1,62 @@
+package com.automarket.web;
+
+import com.automarket.dto.Versioned;
+import org.springframework.data.domain.Page;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Strong validators for car resources. A single car is tagged {@code "<id>-<version>"};
+ * a page is tagged with a digest of its paging metadata and every (id, version) on it.
+ * Page tags are weak: they are only used for If-None-Match, and Tomcat refuses to gzip
+ * responses that carry a strong ETag.
+ */
+final class ETags {
+
+    /** Never equals a real version, so an unusable If-Match always fails the precondition. */
+    private static final long NO_MATCH = -1L;
+
+    private ETags() {
+    }
+
+    static String of(Versioned car) {
+        return "\"" + car.id() + "-" + car.version() + "\"";
+    }
+
+    static String of(Page<? extends Versioned> page) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update((page.getNumber() + "/" + page.getSize() + "/" + page.getTotalElements())
+                .getBytes(StandardCharsets.UTF_8));
+            for (Versioned car : page.getContent()) {
+                md.update((";" + car.id() + "-" + car.version()).getBytes(StandardCharsets.UTF_8));
+            }
+            return "W/\"p-" + HexFormat.of().formatHex(md.digest(), 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Version the client expects for car {@code id} according to {@code If-Match},
+     * or {@code null} when the header is absent or {@code *}. Weak or foreign tags never match.
+     */
+    static Long expectedVersion(String ifMatch, long id) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        String prefix = "\"" + id + "-";
+        if (!tag.startsWith(prefix) || !tag.endsWith("\"")) {
+            return NO_MATCH;
+        }
+        try {
+            return Long.parseLong(tag.substring(prefix.length(), tag.length() - 1));
+        } catch (NumberFormatException ex) {
+            return NO_MATCH;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.automarket.web;
+
+import com.automarket.media.ImageStore;
+import com.automarket.media.ThumbnailService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+
+@RestController
+@RequestMapping("/api/media")
+public class MediaController {
+
+    // Имена содержат хеш содержимого, так что файл по имени никогда не меняется
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+
+    private final ImageStore store;
+    private final ThumbnailService thumbnails;
+
+    public MediaController(ImageStore store, ThumbnailService thumbnails) {
+        this.store = store;
+        this.thumbnails = thumbnails;
+    }
+
+    @GetMapping("/{name}")
+    public void get(@PathVariable String name, HttpServletRequest request, HttpServletResponse response)
+        throws IOException {
+        Path file = store.resolve(name).orElse(null);
+        if (file == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        String etag = "\"" + name + "\"";
+        response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long length = Files.size(file);
+        response.setContentType(name.endsWith(".png") ? MediaType.IMAGE_PNG_VALUE : MediaType.IMAGE_JPEG_VALUE);
+        response.setContentLengthLong(length);
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Русский коммент: Tomcat сам отдаст файл через sendfile, тело не пишем
+            request.setAttribute("org.apache.tomcat.sendfile.filename", file.toString());
+            request.setAttribute("org.apache.tomcat.sendfile.start", 0L);
+            request.setAttribute("org.apache.tomcat.sendfile.end", length);
+        } else {
+            Files.copy(file, response.getOutputStream());
+        }
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAnyRole('SELLER','ADMIN')")
+    public ResponseEntity<Map<String, String>> upload(@RequestParam("file") MultipartFile file) throws IOException {
+        String url = thumbnails.storeUpload(file.getBytes());
+        return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("url", url));
+    }
+}
@@ -0,0 +1,66 @@
+package com.automarket.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * One structured line per API request on {@code http.request}, which logback-spring.xml samples.
+ * Slow requests and 5xx responses go to {@code http.slow} at WARN; it is not a child of
+ * {@code http.request}, so prefix sampling never thins it.
+ * Registered ahead of the security chain so 401/429 responses are logged too.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class RequestLogFilter extends OncePerRequestFilter {
+
+    private static final Logger requests = LoggerFactory.getLogger("http.request");
+    private static final Logger slowRequests = LoggerFactory.getLogger("http.slow");
+
+    private final long slowNanos;
+
+    public RequestLogFilter(@Value("${app.logging.slow-request:1s}") Duration slowRequest) {
+        this.slowNanos = slowRequest.toNanos();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            // Русский коммент: SSE и прочие async-ответы живут минутами — их не логируем
+            if (!request.isAsyncStarted()) {
+                log(request, response.getStatus(), System.nanoTime() - start);
+            }
+        }
+    }
+
+    private void log(HttpServletRequest request, int status, long nanos) {
+        boolean slow = nanos >= slowNanos || status >= 500;
+        long millis = nanos / 1_000_000;
+        (slow ? slowRequests.atWarn() : requests.atInfo())
+            .addKeyValue("method", request.getMethod())
+            .addKeyValue("path", request.getRequestURI())
+            .addKeyValue("status", status)
+            .addKeyValue("durationMs", millis)
+            .log("{} {} -> {} in {} ms", request.getMethod(), request.getRequestURI(), status, millis);
+    }
+}
@@ -0,0 +1,52 @@
+package com.automarket.web;
+
+import com.automarket.dto.SavedSearchCreateDto;
+import com.automarket.dto.SavedSearchDto;
+import com.automarket.dto.SavedSearchMatchDto;
+import com.automarket.service.SavedSearchService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+
+@RestController
+@RequestMapping("/api/saved-searches")
+public class SavedSearchController {
+
+    private final SavedSearchService service;
+
+    public SavedSearchController(SavedSearchService service) {
+        this.service = service;
+    }
+
+    @GetMapping
+    public List<SavedSearchDto> mine() {
+        return service.mine();
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public SavedSearchDto create(@Valid @RequestBody SavedSearchCreateDto body) {
+        return service.create(body);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable Long id) {
+        try {
+            service.delete(id);
+            return ResponseEntity.noContent().build();
+        } catch (NoSuchElementException ex) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /** Most recent listings that matched any of the caller's saved searches. */
+    @GetMapping("/matches")
+    public List<SavedSearchMatchDto> matches(@RequestParam(defaultValue = "50") int limit) {
+        return service.matches(limit);
+    }
+}
@@ -0,0 +1,40 @@
+package com.automarket.web;
+
+import com.automarket.dto.CarDto;
+import com.automarket.dto.SellerStatsDto;
+import com.automarket.dto.SliceDto;
+import com.automarket.service.CarService;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+
+/**
+ * Seller dashboard: the caller's own listings and their aggregates, so the client no longer
+ * has to crawl {@code /api/cars} and filter by sellerUid.
+ */
+@RestController
+@RequestMapping("/api/sellers/me")
+@PreAuthorize("hasAnyRole('SELLER','ADMIN')")
+public class SellerController {
+
+    private final CarService service;
+
+    public SellerController(CarService service) {
+        this.service = service;
+    }
+
+    /** Keyset pages; pass the returned {@code next} token as {@code after}. */
+    @GetMapping("/cars")
+    public SliceDto<CarDto> cars(
+        @RequestParam(required = false) String after,
+        @RequestParam(defaultValue = "createdAt,desc") String sort,
+        @RequestParam(defaultValue = "20") int size
+    ) {
+        return service.sellerCars(after, sort, size);
+    }
+
+    @GetMapping("/stats")
+    public SellerStatsDto stats() {
+        return service.sellerStats();
+    }
+}
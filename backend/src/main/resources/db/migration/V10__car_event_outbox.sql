@@ -0,0 +1,17 @@
+-- Transactional outbox for listing changes, written in the same transaction as the change.
+-- tx_id lets the dispatcher read only rows of transactions that can no longer commit
+-- (below the snapshot xmin), so out-of-order commits are never skipped. Requires PG 13+.
+CREATE TABLE car_event (
+    id                 bigserial PRIMARY KEY,
+    tx_id              xid8        NOT NULL DEFAULT pg_current_xact_id(),
+    car_id             bigint      NOT NULL,
+    type               varchar(16) NOT NULL,
+    make               varchar(64) NOT NULL,
+    price_eur          int         NOT NULL,
+    previous_price_eur int,
+    payload            text        NOT NULL,
+    created_at         timestamptz NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_car_event_tx ON car_event (tx_id, id);
+CREATE INDEX idx_car_event_created_at ON car_event (created_at);
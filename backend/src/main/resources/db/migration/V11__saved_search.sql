@@ -0,0 +1,23 @@
+CREATE TABLE saved_search (
+    id          bigserial PRIMARY KEY,
+    owner_uid   varchar(64)  NOT NULL,
+    name        varchar(100) NOT NULL,
+    make        varchar(64),
+    year_from   int,
+    year_to     int,
+    price_from  int,
+    price_to    int,
+    created_at  timestamptz  NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_saved_search_owner ON saved_search (owner_uid, created_at DESC);
+
+-- Filled by the in-memory matcher; (search_id, car_id) makes recording idempotent.
+CREATE TABLE saved_search_match (
+    search_id   bigint      NOT NULL REFERENCES saved_search (id) ON DELETE CASCADE,
+    car_id      bigint      NOT NULL REFERENCES car (id) ON DELETE CASCADE,
+    matched_at  timestamptz NOT NULL DEFAULT now(),
+    PRIMARY KEY (search_id, car_id)
+);
+
+CREATE INDEX idx_saved_search_match_recent ON saved_search_match (search_id, matched_at DESC);
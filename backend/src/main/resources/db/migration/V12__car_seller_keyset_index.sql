@@ -0,0 +1,5 @@
+-- Seller dashboard: WHERE seller_uid = ? ORDER BY created_at, id is one index range scan
+-- in either direction. The old single-column index is a prefix of this one.
+CREATE INDEX IF NOT EXISTS idx_car_seller_created_at_id ON car (seller_uid, created_at, id);
+
+DROP INDEX IF EXISTS idx_car_seller_uid;
@@ -0,0 +1,10 @@
+-- Outbox position up to which saved searches have been matched, shared by all instances.
+-- The dispatcher starts at the current horizon on every boot; an instance replays car_event
+-- from here at startup, so changes committed while no instance was running still match.
+CREATE TABLE saved_search_cursor (
+    id        boolean PRIMARY KEY DEFAULT true CHECK (id),
+    tx_id     xid8    NOT NULL,
+    event_id  bigint  NOT NULL
+);
+
+INSERT INTO saved_search_cursor (tx_id, event_id) VALUES (pg_snapshot_xmin(pg_current_snapshot()), 0);
@@ -0,0 +1,3 @@
+-- Thumbnail reconciliation walks listings without thumbnails in id order; the partial index
+-- holds only those rows, so a pass stays cheap once the backlog is drained.
+CREATE INDEX IF NOT EXISTS idx_car_missing_thumbnail ON car (id) WHERE thumbnail_key IS NULL;
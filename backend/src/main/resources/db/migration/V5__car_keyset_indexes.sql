@@ -0,0 +1,8 @@
+-- Composite (sort key, id) indexes for keyset pagination; they also serve the
+-- plain year/price range filters, so the single-column ones are dropped.
+CREATE INDEX IF NOT EXISTS idx_car_created_at_id ON car (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_car_price_id ON car (price_eur, id);
+CREATE INDEX IF NOT EXISTS idx_car_year_id ON car (year, id);
+
+DROP INDEX IF EXISTS idx_car_year;
+DROP INDEX IF EXISTS idx_car_price;
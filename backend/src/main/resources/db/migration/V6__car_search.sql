@@ -0,0 +1,15 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Weighted document over make/model (A) and description (B); 'simple' keeps
+-- brand and model names unstemmed.
+ALTER TABLE car ADD COLUMN IF NOT EXISTS search_vector tsvector
+  GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', coalesce(make, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(model, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+  ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_car_search_vector ON car USING gin (search_vector);
+
+-- Lets the existing lower(make) LIKE '%x%' filter use an index.
+CREATE INDEX IF NOT EXISTS idx_car_make_trgm ON car USING gin (lower(make) gin_trgm_ops);
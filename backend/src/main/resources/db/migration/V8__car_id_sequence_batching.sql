@@ -0,0 +1,3 @@
+-- Hibernate now allocates ids from this sequence in blocks of 50 (pooled optimizer)
+-- so inserts can be JDBC-batched; plain INSERTs relying on the column default still work.
+ALTER SEQUENCE car_id_seq INCREMENT BY 50;
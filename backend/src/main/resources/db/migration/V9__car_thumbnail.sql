@@ -0,0 +1,3 @@
+-- SHA-256 of the source image; thumbnails are stored as <key>-w<width>.jpg in the media store.
+-- NULL until the async pipeline has produced them, the UI falls back to image_url.
+ALTER TABLE car ADD COLUMN thumbnail_key varchar(64);
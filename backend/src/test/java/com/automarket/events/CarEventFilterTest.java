@@ -0,0 +1,50 @@
+package com.automarket.events;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CarEventFilterTest {
+
+    @Test
+    void makeIsCaseInsensitiveSubstring() {
+        var filter = new CarEventFilter("  Merc ", null, null);
+
+        assertThat(filter.matches(created("Mercedes-Benz", 30_000))).isTrue();
+        assertThat(filter.matches(created("MERCURY", 30_000))).isTrue();
+        assertThat(filter.matches(created("BMW", 30_000))).isFalse();
+        assertThat(new CarEventFilter(" ", null, null).make()).isNull();
+        assertThat(new CarEventFilter(null, null, null).matches(created("Lada", 1))).isTrue();
+    }
+
+    @Test
+    void priceBoundsAreInclusiveAndOptional() {
+        var filter = new CarEventFilter(null, 10_000, 20_000);
+
+        assertThat(filter.matches(created("BMW", 10_000))).isTrue();
+        assertThat(filter.matches(created("BMW", 20_000))).isTrue();
+        assertThat(filter.matches(created("BMW", 9_999))).isFalse();
+        assertThat(filter.matches(created("BMW", 20_001))).isFalse();
+        assertThat(new CarEventFilter(null, 10_000, null).matches(created("BMW", 1_000_000))).isTrue();
+        assertThat(new CarEventFilter(null, null, 20_000).matches(created("BMW", 0))).isTrue();
+    }
+
+    @Test
+    void updateMatchesWhenEitherPriceIsInRange() {
+        var filter = new CarEventFilter("bmw", 10_000, 20_000);
+
+        // Русский коммент: цена ушла из диапазона — подписчик должен узнать, чтобы убрать карточку
+        assertThat(filter.matches(updated("BMW", 25_000, 15_000))).isTrue();
+        assertThat(filter.matches(updated("BMW", 15_000, 25_000))).isTrue();
+        assertThat(filter.matches(updated("BMW", 25_000, 30_000))).isFalse();
+        assertThat(filter.matches(updated("Audi", 15_000, 15_000))).isFalse();
+    }
+
+    private static CarEvent created(String make, int price) {
+        return new CarEvent(1, CarEvent.CREATED, make, price, null, "{}");
+    }
+
+    private static CarEvent updated(String make, int price, int previousPrice) {
+        return new CarEvent(1, CarEvent.UPDATED, make, price, previousPrice, "{}");
+    }
+}
@@ -0,0 +1,146 @@
+package com.automarket.events;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CarEventHubTest {
+
+    private static final CarEventFilter ANY = new CarEventFilter(null, null, null);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private CarEventHub hub;
+    /** Handed out by the next subscribe; null = a non-blocking one. */
+    private RecordingEmitter next;
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    @Test
+    void deliversMatchingEventsInOrder() throws Exception {
+        hub = hub(16, 100);
+        RecordingEmitter bmw = subscribe(new CarEventFilter("bmw", null, null), null);
+        RecordingEmitter cheap = subscribe(new CarEventFilter(null, null, 10_000), null);
+
+        hub.publish(List.of(event(1, "BMW", 20_000), event(2, "Audi", 5_000), event(3, "bmw", 8_000)));
+
+        assertThat(bmw.ids(2)).containsExactly("1", "3");
+        assertThat(cheap.ids(2)).containsExactly("2", "3");
+        assertThat(bmw.frames.poll(100, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void replaysMissedEventsOrResets() throws Exception {
+        hub = hub(16, 3);
+        hub.publish(LongStream.rangeClosed(1, 5).mapToObj(id -> event(id, "BMW", 20_000)).toList());
+
+        RecordingEmitter covered = subscribe(ANY, 3L);
+        assertThat(covered.ids(2)).containsExactly("4", "5");
+
+        // Русский коммент: событие 1 уже вытеснено из кольца — клиент должен перезагрузить список
+        RecordingEmitter evicted = subscribe(ANY, 1L);
+        assertThat(evicted.frames.poll(5, TimeUnit.SECONDS)).contains("event:reset");
+        assertThat(evicted.frames.poll(100, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void overflowDisconnectsAndReconnectReplays() throws Exception {
+        hub = hub(2, 100);
+        next = new RecordingEmitter(new CountDownLatch(1));
+        RecordingEmitter slow = subscribe(ANY, null);
+
+        hub.publish(List.of(event(1, "BMW", 20_000)));
+        assertThat(slow.sending.await(5, TimeUnit.SECONDS)).isTrue();
+        // Русский коммент: 1 уже у отправителя, 2 и 3 заполняют буфер, 4 не влезает
+        hub.publish(List.of(event(2, "BMW", 20_000), event(3, "BMW", 20_000), event(4, "BMW", 20_000)));
+
+        assertThat(slow.completed).isTrue();
+        assertThat(registry.get("car.events.subscribers.dropped").counter().count()).isEqualTo(1);
+        assertThat(registry.get("car.events.subscribers").gauge().value()).isZero();
+        slow.gate.countDown();
+
+        RecordingEmitter again = subscribe(ANY, 2L);
+        assertThat(again.ids(2)).containsExactly("3", "4");
+
+        // Русский коммент: три пропущенных события не влезают в буфер на два — только reset
+        RecordingEmitter tooFarBehind = subscribe(ANY, 1L);
+        assertThat(tooFarBehind.frames.poll(5, TimeUnit.SECONDS)).contains("event:reset");
+        assertThat(tooFarBehind.frames.poll(100, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    private CarEventHub hub(int buffer, int replay) {
+        return new CarEventHub(buffer, 10, replay, registry) {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                RecordingEmitter emitter = next != null ? next : new RecordingEmitter(null);
+                next = null;
+                return emitter;
+            }
+        };
+    }
+
+    private RecordingEmitter subscribe(CarEventFilter filter, Long lastEventId) {
+        return (RecordingEmitter) hub.subscribe(filter, lastEventId, 60_000);
+    }
+
+    private static CarEvent event(long id, String make, int price) {
+        return new CarEvent(id, CarEvent.CREATED, make, price, null, "{\"id\":" + id + "}");
+    }
+
+    /** Keeps the SSE frames it is asked to send; optionally blocks in the first send until released. */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        final BlockingQueue<String> frames = new LinkedBlockingQueue<>();
+        final CountDownLatch gate;
+        final CountDownLatch sending = new CountDownLatch(1);
+        volatile boolean completed;
+
+        RecordingEmitter(CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sending.countDown();
+            if (gate != null) {
+                try {
+                    gate.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            frames.add(builder.build().stream().map(d -> d.getData().toString()).collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+            super.complete();
+        }
+
+        /** The ids of the next {@code n} event frames. */
+        List<String> ids(int n) throws InterruptedException {
+            List<String> ids = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                String frame = frames.poll(5, TimeUnit.SECONDS);
+                assertThat(frame).as("frame %d of %d", i + 1, n).isNotNull();
+                ids.add(frame.substring(frame.indexOf("id:") + 3, frame.indexOf('\n', frame.indexOf("id:"))));
+            }
+            return ids;
+        }
+    }
+}
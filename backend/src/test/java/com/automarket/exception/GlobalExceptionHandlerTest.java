@@ -0,0 +1,47 @@
+package com.automarket.exception;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class GlobalExceptionHandlerTest {
+
+    private final MockMvc mvc = MockMvcBuilders.standaloneSetup(new Failing())
+        .setControllerAdvice(new GlobalExceptionHandler())
+        .build();
+
+    @Test
+    void badRequestExceptionIsA400WithItsMessage() throws Exception {
+        mvc.perform(get("/bad-request"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("Invalid cursor"));
+    }
+
+    @Test
+    void otherIllegalArgumentsAreInternalErrorsAndStayHidden() throws Exception {
+        mvc.perform(get("/bug"))
+            .andExpect(status().isInternalServerError())
+            .andExpect(jsonPath("$.message").value("Unexpected error"));
+    }
+
+    @RestController
+    static class Failing {
+
+        @GetMapping("/bad-request")
+        String badRequest() {
+            throw new BadRequestException("Invalid cursor");
+        }
+
+        @GetMapping("/bug")
+        String bug() {
+            // Русский коммент: внутренняя ошибка — её текст клиенту не показываем
+            throw new IllegalArgumentException("Unknown car field: sellerUid");
+        }
+    }
+}
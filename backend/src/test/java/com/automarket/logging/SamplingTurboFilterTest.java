@@ -0,0 +1,90 @@
+package com.automarket.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.PropertyPlaceholderHelper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SamplingTurboFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final SamplingTurboFilter filter = new SamplingTurboFilter();
+
+    @BeforeEach
+    void setUp() {
+        context.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.INFO);
+        filter.setContext(context);
+        filter.setSamples("http.request=10, http.request.audit=1");
+        filter.start();
+    }
+
+    @Test
+    void keepsOneEventInN() {
+        int kept = 0;
+        for (int i = 0; i < 100; i++) {
+            if (decide("http.request", Level.INFO, "msg") == FilterReply.NEUTRAL) {
+                kept++;
+            }
+        }
+        assertThat(kept).isEqualTo(10);
+        assertThat(filter.categories().get("http.request").dropped()).isEqualTo(90);
+    }
+
+    @Test
+    void longestPrefixWinsAndErrorsAreNeverSampled() {
+        for (int i = 0; i < 20; i++) {
+            assertThat(decide("http.request.audit", Level.WARN, "msg")).isEqualTo(FilterReply.NEUTRAL);
+            assertThat(decide("http.request", Level.ERROR, "msg")).isEqualTo(FilterReply.NEUTRAL);
+            assertThat(decide("http.requests", Level.INFO, "msg")).isEqualTo(FilterReply.NEUTRAL);
+            assertThat(decide("com.automarket.web", Level.INFO, "msg")).isEqualTo(FilterReply.NEUTRAL);
+        }
+    }
+
+    @Test
+    void shippedDefaultSamplesRequestsButKeepsEverySlowOne() {
+        SamplingTurboFilter shipped = new SamplingTurboFilter();
+        shipped.setContext(context);
+        shipped.setSamples(shippedSamples());
+        shipped.start();
+
+        int kept = 0;
+        for (int i = 0; i < 200; i++) {
+            assertThat(shipped.decide(null, context.getLogger("http.slow"), Level.WARN, "msg", null, null))
+                .isEqualTo(FilterReply.NEUTRAL);
+            if (shipped.decide(null, context.getLogger("http.request"), Level.INFO, "msg", null, null) == FilterReply.NEUTRAL) {
+                kept++;
+            }
+        }
+        assertThat(kept).isLessThan(200);
+        assertThat(shipped.categories()).doesNotContainKey("http.slow");
+    }
+
+    @Test
+    void enabledChecksAndDisabledLevelsDoNotConsumeSamples() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(decide("http.request", Level.INFO, null)).isEqualTo(FilterReply.NEUTRAL);
+            assertThat(decide("http.request", Level.DEBUG, "msg")).isEqualTo(FilterReply.NEUTRAL);
+        }
+        assertThat(decide("http.request", Level.INFO, "msg")).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(decide("http.request", Level.INFO, "msg")).isEqualTo(FilterReply.DENY);
+    }
+
+    /** {@code app.logging.samples} as application.yml ships it, with LOG_SAMPLES unset. */
+    private static String shippedSamples() {
+        var yaml = new YamlPropertiesFactoryBean();
+        yaml.setResources(new ClassPathResource("application.yml"));
+        String raw = yaml.getObject().getProperty("app.logging.samples");
+        return new PropertyPlaceholderHelper("${", "}", ":", null, true).replacePlaceholders(raw, name -> null);
+    }
+
+    private FilterReply decide(String logger, Level level, String format) {
+        return filter.decide(null, context.getLogger(logger), level, format, null, null);
+    }
+}
@@ -0,0 +1,89 @@
+package com.automarket.media;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImageFetcherTest {
+
+    @Test
+    void blocksNonPublicIpv4() throws Exception {
+        for (String ip : new String[] {"0.0.0.0", "10.1.2.3", "100.64.0.1", "100.127.255.254", "127.0.0.1",
+            "169.254.169.254", "172.16.0.1", "172.31.255.255", "192.0.0.8", "192.168.1.1", "198.18.0.1",
+            "224.0.0.1", "255.255.255.255"}) {
+            assertThat(ImageFetcher.isPublic(InetAddress.getByName(ip))).as(ip).isFalse();
+        }
+        for (String ip : new String[] {"8.8.8.8", "100.63.255.255", "100.128.0.1", "172.32.0.1", "192.0.2.1", "93.184.216.34"}) {
+            assertThat(ImageFetcher.isPublic(InetAddress.getByName(ip))).as(ip).isTrue();
+        }
+    }
+
+    @Test
+    void blocksNonPublicIpv6AndEmbeddedIpv4() throws Exception {
+        for (String ip : new String[] {"::", "::1", "fe80::1", "fc00::1", "fd12:3456::1", "ff02::1",
+            "::127.0.0.1", "64:ff9b::a9fe:a9fe"}) {
+            assertThat(ImageFetcher.isPublic(InetAddress.getByName(ip))).as(ip).isFalse();
+        }
+        // Русский коммент: getByName превращает ::ffff:a.b.c.d в Inet4Address, поэтому собираем вручную
+        byte[] mapped = {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, (byte) 0xff, (byte) 0xff, 127, 0, 0, 1};
+        assertThat(ImageFetcher.isPublic(Inet6Address.getByAddress(null, mapped, -1))).isFalse();
+        mapped[12] = 100;
+        mapped[13] = 100;
+        assertThat(ImageFetcher.isPublic(Inet6Address.getByAddress(null, mapped, -1))).isFalse();
+        mapped[12] = 8;
+        mapped[13] = 8;
+        assertThat(ImageFetcher.isPublic(Inet6Address.getByAddress(null, mapped, -1))).isTrue();
+
+        assertThat(ImageFetcher.isPublic(InetAddress.getByName("2001:4860:4860::8888"))).isTrue();
+        assertThat(ImageFetcher.isPublic(InetAddress.getByName("64:ff9b::808:808"))).isTrue();
+    }
+
+    @Test
+    void resolverRefusesHostsWithAnyNonPublicAddress() {
+        var resolver = new ImageFetcher.PublicAddressResolver();
+
+        assertThatThrownBy(() -> resolver.resolve("localhost")).isInstanceOf(UnknownHostException.class);
+        assertThatThrownBy(() -> resolver.resolve("169.254.169.254")).isInstanceOf(UnknownHostException.class);
+        assertThatThrownBy(() -> resolver.resolve("localhost", 80)).isInstanceOf(UnknownHostException.class);
+    }
+
+    @Test
+    void rejectsUnsupportedUrls() {
+        assertThatThrownBy(() -> ImageFetcher.requireHttp(URI.create("file:///etc/passwd"))).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> ImageFetcher.requireHttp(URI.create("gopher://example.com/"))).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> ImageFetcher.requireHttp(URI.create("http:/no-host"))).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void neverConnectsToLoopback() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        AtomicInteger requests = new AtomicInteger();
+        server.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+        ImageFetcher fetcher = new ImageFetcher(1024);
+        try {
+            int port = server.getAddress().getPort();
+            assertThatThrownBy(() -> fetcher.fetch("http://127.0.0.1:" + port + "/a.jpg")).isInstanceOf(IOException.class);
+            assertThatThrownBy(() -> fetcher.fetch("http://localhost:" + port + "/a.jpg")).isInstanceOf(IOException.class);
+            assertThatThrownBy(() -> fetcher.fetch("http://[::ffff:127.0.0.1]:" + port + "/a.jpg")).isInstanceOf(IOException.class);
+            assertThat(requests).hasValue(0);
+        } finally {
+            fetcher.close();
+            server.stop(0);
+        }
+    }
+}
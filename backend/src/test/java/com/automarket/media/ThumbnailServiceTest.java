@@ -0,0 +1,108 @@
+package com.automarket.media;
+
+import com.automarket.repository.CarImageRow;
+import com.automarket.service.CarImageChangedEvent;
+import com.automarket.service.CarService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ThumbnailServiceTest {
+
+    private final ImageFetcher fetcher = mock(ImageFetcher.class);
+    private final CarService cars = mock(CarService.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ThumbnailService thumbnails;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Русский коммент: первая загрузка висит, пока тест её не отпустит, — так очередь заполняется
+        when(fetcher.fetch(anyString())).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            throw new IOException("unreachable");
+        });
+        thumbnails = new ThumbnailService(mock(ImageStore.class), fetcher, cars, registry, 1, 2, Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        thumbnails.shutdown();
+    }
+
+    @Test
+    void rejectedJobsArePickedUpByReconciliation() throws Exception {
+        for (long id = 1; id <= 4; id++) {
+            thumbnails.onImageChanged(new CarImageChangedEvent(id, "https://img.example/" + id + ".jpg"));
+        }
+        assertThat(registry.get("media.thumbnails").tag("outcome", "rejected").counter().count()).isEqualTo(1);
+
+        // Русский коммент: очередь полна — сверка даже не ходит в БД
+        thumbnails.reconcile();
+        verify(cars, never()).missingThumbnails(anyLong(), any(), anyInt());
+
+        release.countDown();
+        verify(fetcher, timeout(5000).times(3)).fetch(anyString());
+
+        when(cars.missingThumbnails(eq(0L), any(), eq(2))).thenReturn(List.of(row(4), row(9)));
+        when(cars.missingThumbnails(eq(9L), any(), eq(2))).thenReturn(List.of());
+        thumbnails.reconcile();
+        verify(fetcher, timeout(5000).times(5)).fetch(anyString());
+        assertThat(registry.get("media.thumbnails").tag("outcome", "reconciled").counter().count()).isEqualTo(2);
+
+        // Русский коммент: полная страница — следующий проход продолжает после id 9, неполная — новый круг
+        thumbnails.reconcile();
+        thumbnails.reconcile();
+        verify(cars).missingThumbnails(eq(9L), any(), eq(2));
+        verify(cars, times(2)).missingThumbnails(eq(0L), any(), eq(2));
+    }
+
+    @Test
+    void reconciliationSkipsCarsAlreadyQueued() throws Exception {
+        thumbnails.onImageChanged(new CarImageChangedEvent(1L, "https://img.example/1.jpg"));
+        thumbnails.onImageChanged(new CarImageChangedEvent(2L, "https://img.example/2.jpg"));
+        verify(fetcher, timeout(5000)).fetch("https://img.example/1.jpg");
+        when(cars.missingThumbnails(eq(0L), any(), eq(1))).thenReturn(List.of(row(2)));
+
+        thumbnails.reconcile();
+        release.countDown();
+
+        verify(fetcher, after(500).times(1)).fetch("https://img.example/2.jpg");
+    }
+
+    private static CarImageRow row(long id) {
+        return new CarImageRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getImageUrl() {
+                return "https://img.example/" + id + ".jpg";
+            }
+        };
+    }
+}
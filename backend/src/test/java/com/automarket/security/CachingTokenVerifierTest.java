@@ -0,0 +1,105 @@
+package com.automarket.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CachingTokenVerifierTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+    private final FakeVerifier fake = new FakeVerifier();
+
+    @Test
+    void repeatedTokenIsVerifiedOnce() throws Exception {
+        var verifier = new CachingTokenVerifier(fake, 100, clock);
+
+        var first = verifier.verify("token-a");
+        var second = verifier.verify("token-a");
+
+        assertThat(second).isEqualTo(first);
+        assertThat(fake.calls).isEqualTo(1);
+        assertThat(verifier.stats().hitCount()).isEqualTo(1);
+        assertThat(verifier.stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void entryIsDroppedAtTokenExpiry() throws Exception {
+        var verifier = new CachingTokenVerifier(fake, 100, clock);
+
+        verifier.verify("token-a");
+        clock.advance(FakeVerifier.TTL.plusSeconds(1));
+        verifier.verify("token-a");
+
+        assertThat(fake.calls).isEqualTo(2);
+    }
+
+    @Test
+    void failuresAreNotCached() {
+        var verifier = new CachingTokenVerifier(fake, 100, clock);
+
+        assertThatThrownBy(() -> verifier.verify("bad")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> verifier.verify("bad")).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(fake.calls).isEqualTo(2);
+        assertThat(verifier.size()).isZero();
+    }
+
+    @Test
+    void sizeIsBounded() throws Exception {
+        var verifier = new CachingTokenVerifier(fake, 10, clock);
+
+        for (int i = 0; i < 100; i++) {
+            verifier.verify("token-" + i);
+        }
+
+        assertThat(verifier.size()).isLessThanOrEqualTo(10);
+    }
+
+    private final class FakeVerifier implements TokenVerifier {
+        static final Duration TTL = Duration.ofHours(1);
+        int calls;
+
+        @Override
+        public VerifiedToken verify(String idToken) {
+            calls++;
+            if (idToken.equals("bad")) {
+                throw new IllegalArgumentException("invalid signature");
+            }
+            return new VerifiedToken("uid-" + idToken, "SELLER", clock.instant().plus(TTL));
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration d) {
+            now = now.plus(d);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.automarket.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private final RateLimiter limiter = new RateLimiter(
+        new RateLimiter.Budget(10, 5),
+        new RateLimiter.Budget(1, 2),
+        1000,
+        now::get);
+
+    @Test
+    void burstIsAdmittedThenClientMustWaitOneInterval() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("ip:1.2.3.4", RateLimiter.Kind.READ)).isZero();
+        }
+        long wait = limiter.tryAcquire("ip:1.2.3.4", RateLimiter.Kind.READ);
+        assertThat(wait).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+
+        now.addAndGet(wait);
+        assertThat(limiter.tryAcquire("ip:1.2.3.4", RateLimiter.Kind.READ)).isZero();
+    }
+
+    @Test
+    void readsAndWritesAndClientsHaveSeparateBudgets() {
+        assertThat(limiter.tryAcquire("uid:a", RateLimiter.Kind.WRITE)).isZero();
+        assertThat(limiter.tryAcquire("uid:a", RateLimiter.Kind.WRITE)).isZero();
+        assertThat(limiter.tryAcquire("uid:a", RateLimiter.Kind.WRITE)).isPositive();
+
+        assertThat(limiter.tryAcquire("uid:a", RateLimiter.Kind.READ)).isZero();
+        assertThat(limiter.tryAcquire("uid:b", RateLimiter.Kind.WRITE)).isZero();
+    }
+
+    @Test
+    void idleBucketRefillsCompletely() {
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("ip:x", RateLimiter.Kind.READ);
+        }
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("ip:x", RateLimiter.Kind.READ)).isZero();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.automarket.service;
+
+import com.automarket.exception.BadRequestException;
+import com.automarket.media.ImageStore;
+import com.automarket.media.ImageUrlValidator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorFactory;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+class CarPatchTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    @TempDir
+    Path media;
+
+    private Validator validator;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ImageStore store = new ImageStore(media, "https://cdn.example/media");
+        var config = Validation.byDefaultProvider().configure();
+        ConstraintValidatorFactory defaults = config.getDefaultConstraintValidatorFactory();
+        // Русский коммент: ImageUrlValidator создаёт Spring, здесь собираем его вручную
+        validator = config.constraintValidatorFactory(new ConstraintValidatorFactory() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T extends ConstraintValidator<?, ?>> T getInstance(Class<T> key) {
+                return key == ImageUrlValidator.class ? (T) new ImageUrlValidator(store) : defaults.getInstance(key);
+            }
+
+            @Override
+            public void releaseInstance(ConstraintValidator<?, ?> instance) {
+            }
+        }).buildValidatorFactory().getValidator();
+    }
+
+    @Test
+    void keepsPresentMembersInOrderAndNullClears() throws Exception {
+        CarPatch patch = CarPatch.fromMergePatch(
+            json("{\"priceEur\": 12000, \"description\": null, \"imageUrl\": \"https://img.example/a.jpg\"}"), validator);
+
+        assertThat(patch.changes()).containsExactly(
+            entry("priceEur", 12000), entry("description", null), entry("imageUrl", "https://img.example/a.jpg"));
+        assertThat(CarPatch.fromMergePatch(json("{}"), validator).isEmpty()).isTrue();
+    }
+
+    @Test
+    void rejectsUnknownFieldsAndNonObjects() {
+        assertThatThrownBy(() -> CarPatch.fromMergePatch(json("{\"sellerUid\": \"someone-else\"}"), validator))
+            .isInstanceOf(BadRequestException.class)
+            .hasMessageContaining("sellerUid");
+        assertThatThrownBy(() -> CarPatch.fromMergePatch(json("[1]"), validator))
+            .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> CarPatch.fromMergePatch(null, validator))
+            .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void rejectsNullOnRequiredFields() {
+        assertThatThrownBy(() -> CarPatch.fromMergePatch(json("{\"year\": null}"), validator))
+            .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> CarPatch.fromMergePatch(json("{\"make\": null}"), validator))
+            .isInstanceOf(ConstraintViolationException.class);
+    }
+
+    @Test
+    void rejectsWrongTypes() {
+        for (String body : new String[] {"{\"make\": 5}", "{\"imageUrl\": {}}", "{\"priceEur\": \"5000\"}",
+            "{\"year\": 2001.5}", "{\"priceEur\": 10000000000}"}) {
+            assertThatThrownBy(() -> CarPatch.fromMergePatch(json(body), validator))
+                .as(body)
+                .isInstanceOf(BadRequestException.class);
+        }
+    }
+
+    @Test
+    void collectsAllConstraintViolations() {
+        String body = "{\"year\": 1900, \"priceEur\": -1, \"model\": \" \", \"imageUrl\": \"ftp://img.example/a.jpg\", "
+            + "\"description\": \"" + "x".repeat(2001) + "\"}";
+
+        assertThatThrownBy(() -> CarPatch.fromMergePatch(json(body), validator))
+            .isInstanceOfSatisfying(ConstraintViolationException.class, ex -> assertThat(ex.getConstraintViolations())
+                .extracting(v -> v.getPropertyPath().toString())
+                .containsExactlyInAnyOrder("year", "priceEur", "model", "imageUrl", "description"));
+    }
+
+    private static JsonNode json(String body) throws Exception {
+        return JSON.readTree(body);
+    }
+}
@@ -0,0 +1,78 @@
+package com.automarket.service;
+
+import com.automarket.config.CacheConfig;
+import com.automarket.domain.Car;
+import com.automarket.dto.CarDto;
+import com.automarket.events.CarEventOutbox;
+import com.automarket.repository.CarRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringJUnitConfig
+class CarServiceCacheTest {
+
+    @Autowired
+    CarService cars;
+
+    @Autowired
+    CarRepository repo;
+
+    @Autowired
+    CarMapper mapper;
+
+    @Test
+    void notFoundIsNotCachedButFoundIs() {
+        Car car = new Car();
+        CarDto dto = mock(CarDto.class);
+        when(repo.findById(42L)).thenReturn(Optional.empty(), Optional.of(car));
+        when(mapper.toDto(car)).thenReturn(dto);
+
+        assertThat(cars.findById(42L)).isEmpty();
+        // Русский коммент: машина появилась — второй запрос должен дойти до БД, а не вернуть закешированный 404
+        assertThat(cars.findById(42L)).contains(dto);
+        assertThat(cars.findById(42L)).contains(dto);
+
+        verify(repo, times(2)).findById(42L);
+    }
+
+    @Configuration
+    @EnableCaching
+    static class Config {
+
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(CacheConfig.CARS);
+        }
+
+        @Bean
+        CarRepository carRepository() {
+            return mock(CarRepository.class);
+        }
+
+        @Bean
+        CarMapper carMapper() {
+            return mock(CarMapper.class);
+        }
+
+        @Bean
+        CarService carService(CarRepository repo, CarMapper mapper) {
+            return new CarService(repo, mapper, mock(ApplicationEventPublisher.class), mock(CarEventOutbox.class),
+                mock(ListingIndexService.class));
+        }
+    }
+}
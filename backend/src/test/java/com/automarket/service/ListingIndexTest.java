@@ -0,0 +1,112 @@
+package com.automarket.service;
+
+import com.automarket.dto.CarDto;
+import com.automarket.dto.CarFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ListingIndexTest {
+
+    private static final String[] MAKES = {"BMW", "Audi", "Toyota", "Mercedes-Benz", "Skoda"};
+    private static final String[] TERMS = {null, "bm", "AUDI", "toy", "benz", "a", "zz"};
+    private static final String[] SORTS = {"createdAt", "priceEur", "year", "id"};
+    private static final OffsetDateTime EPOCH = OffsetDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    @Test
+    void pagesMatchSortedLinearScan() {
+        Random rnd = new Random(7);
+        Map<Long, CarDto> cars = new LinkedHashMap<>();
+        for (long id = 1; id <= 3000; id++) {
+            cars.put(id, randomCar(id, 0, rnd));
+        }
+        var index = ListingIndex.build(new ArrayList<>(cars.values()));
+        // Русский коммент: после bulk-сборки — вставки, обновления (в т.ч. ключей сортировки) и удаления
+        for (long id = 3001; id <= 3500; id++) {
+            cars.put(id, randomCar(id, 0, rnd));
+            index.upsert(cars.get(id));
+        }
+        for (long id = 1; id <= 3500; id += 5) {
+            cars.put(id, randomCar(id, cars.get(id).version() + 1, rnd));
+            index.upsert(cars.get(id));
+        }
+        for (long id = 2; id <= 3500; id += 9) {
+            cars.remove(id);
+            index.remove(id);
+        }
+        assertThat(index.size()).isEqualTo(cars.size());
+
+        for (int i = 0; i < 400; i++) {
+            Integer yearFrom = rnd.nextBoolean() ? 1995 + rnd.nextInt(25) : null;
+            Integer yearTo = rnd.nextBoolean() ? 2000 + rnd.nextInt(25) : null;
+            Integer priceFrom = rnd.nextInt(3) == 0 ? rnd.nextInt(60_000) : null;
+            Integer priceTo = rnd.nextInt(3) == 0 ? rnd.nextInt(80_000) : null;
+            var filter = new CarFilter(TERMS[rnd.nextInt(TERMS.length)], yearFrom, yearTo, priceFrom, priceTo, null);
+            Sort.Direction dir = rnd.nextBoolean() ? Sort.Direction.ASC : Sort.Direction.DESC;
+            String property = SORTS[rnd.nextInt(SORTS.length)];
+            var pageable = PageRequest.of(rnd.nextInt(4), 1 + rnd.nextInt(40), Sort.by(dir, property));
+
+            Page<CarDto> page = index.query(filter, pageable).orElseThrow();
+
+            List<CarDto> expected = cars.values().stream()
+                .filter(c -> matches(filter, c))
+                .sorted(comparator(property, dir))
+                .toList();
+            int from = (int) Math.min(pageable.getOffset(), expected.size());
+            int to = Math.min(from + pageable.getPageSize(), expected.size());
+            assertThat(page.getTotalElements()).isEqualTo(expected.size());
+            assertThat(page.getContent()).isEqualTo(expected.subList(from, to));
+        }
+    }
+
+    @Test
+    void staleStateIsIgnoredAndUnsupportedQueriesFallBack() {
+        Random rnd = new Random(1);
+        var index = ListingIndex.build(List.of(randomCar(1, 3, rnd)));
+        index.upsert(randomCar(1, 2, rnd));
+        assertThat(index.query(new CarFilter(null, null, null, null, null, null), PageRequest.of(0, 10))
+            .orElseThrow().getContent().get(0).version()).isEqualTo(3);
+
+        assertThat(index.query(new CarFilter(null, null, null, null, null, "bmw"), PageRequest.of(0, 10))).isEmpty();
+        assertThat(index.query(new CarFilter(null, null, null, null, null, null),
+            PageRequest.of(0, 10, Sort.by("model")))).isEmpty();
+    }
+
+    private static boolean matches(CarFilter f, CarDto c) {
+        return (f.make() == null || c.make().toLowerCase().contains(f.make().toLowerCase()))
+            && (f.yearFrom() == null || c.year() >= f.yearFrom())
+            && (f.yearTo() == null || c.year() <= f.yearTo())
+            && (f.priceFrom() == null || c.priceEur() >= f.priceFrom())
+            && (f.priceTo() == null || c.priceEur() <= f.priceTo());
+    }
+
+    private static Comparator<CarDto> comparator(String property, Sort.Direction dir) {
+        Comparator<CarDto> byKey = switch (property) {
+            case "createdAt" -> Comparator.comparing(CarDto::createdAt);
+            case "priceEur" -> Comparator.comparingInt(CarDto::priceEur);
+            case "year" -> Comparator.comparingInt(CarDto::year);
+            default -> (a, b) -> 0;
+        };
+        Comparator<CarDto> c = byKey.thenComparing(CarDto::id);
+        return dir.isDescending() ? c.reversed() : c;
+    }
+
+    private static CarDto randomCar(long id, long version, Random rnd) {
+        var created = EPOCH.plusSeconds(rnd.nextInt(1000));
+        return new CarDto(id, MAKES[rnd.nextInt(MAKES.length)], "Model " + rnd.nextInt(20),
+            1995 + rnd.nextInt(30), 1000 + rnd.nextInt(50) * 1000, "https://img.example/" + id + ".jpg", null,
+            null, "seller-" + rnd.nextInt(10), created, version, created);
+    }
+}
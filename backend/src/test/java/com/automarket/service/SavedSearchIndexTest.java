@@ -0,0 +1,75 @@
+package com.automarket.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SavedSearchIndexTest {
+
+    private static final String[] MAKES = {"BMW", "Audi", "Toyota", "Mercedes-Benz", "Skoda"};
+    private static final String[] TERMS = {null, "bm", "audi", "toy", "benz", "a"};
+
+    @Test
+    void matchesSameCarsAsLinearScan() {
+        Random rnd = new Random(42);
+        List<SavedSearchIndex.Entry> entries = new ArrayList<>();
+        for (long id = 1; id <= 5000; id++) {
+            entries.add(randomEntry(id, rnd));
+        }
+        var index = new SavedSearchIndex();
+        index.reset(new ArrayList<>(entries.subList(0, 3000)));
+        // Часть через delta (и переполнение delta → rebuild), часть удаляем
+        entries.subList(3000, 5000).forEach(index::add);
+        for (long id = 1; id <= 5000; id += 7) {
+            index.remove(id);
+        }
+        List<SavedSearchIndex.Entry> live = entries.stream().filter(e -> (e.id() - 1) % 7 != 0).toList();
+
+        for (int i = 0; i < 500; i++) {
+            String make = MAKES[rnd.nextInt(MAKES.length)];
+            int year = 1990 + rnd.nextInt(35);
+            int price = rnd.nextInt(100_000);
+
+            Set<Long> actual = new HashSet<>();
+            index.match(make, year, price, actual::add);
+
+            Set<Long> expected = new HashSet<>();
+            for (var e : live) {
+                boolean makeOk = e.make() == null || make.toLowerCase().contains(e.make());
+                if (makeOk && e.matchesYear(year) && e.matchesPrice(price)) {
+                    expected.add(e.id());
+                }
+            }
+            assertThat(actual).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void openBoundsMatchEverything() {
+        var index = new SavedSearchIndex();
+        index.add(new SavedSearchIndex.Entry(1, null, null, null, null, null));
+        index.add(new SavedSearchIndex.Entry(2, "BMW", null, null, 10_000, null));
+
+        Set<Long> hits = new HashSet<>();
+        index.match("BMW", 2001, 15_000, hits::add);
+        assertThat(hits).containsExactlyInAnyOrder(1L, 2L);
+
+        hits.clear();
+        index.match("Audi", 2001, 15_000, hits::add);
+        assertThat(hits).containsExactly(1L);
+    }
+
+    private static SavedSearchIndex.Entry randomEntry(long id, Random rnd) {
+        Integer yearFrom = rnd.nextBoolean() ? 1990 + rnd.nextInt(30) : null;
+        Integer yearTo = rnd.nextBoolean() ? (yearFrom == null ? 1995 : yearFrom) + rnd.nextInt(15) : null;
+        Integer priceFrom = rnd.nextInt(3) > 0 ? rnd.nextInt(60_000) : null;
+        Integer priceTo = rnd.nextInt(3) > 0 ? (priceFrom == null ? 0 : priceFrom) + rnd.nextInt(40_000) : null;
+        return new SavedSearchIndex.Entry(id, TERMS[rnd.nextInt(TERMS.length)], yearFrom, yearTo, priceFrom, priceTo);
+    }
+}
@@ -0,0 +1,115 @@
+package com.automarket.service;
+
+import com.automarket.domain.SavedSearch;
+import com.automarket.dto.CarEventDto;
+import com.automarket.dto.CarSummaryDto;
+import com.automarket.events.CarEventDispatcher;
+import com.automarket.events.CarEventsCommitted;
+import com.automarket.repository.SavedSearchRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class SavedSearchServiceTest {
+
+    private static final OffsetDateTime CREATED = OffsetDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    private final SavedSearchRepository repo = mock(SavedSearchRepository.class);
+    private final JdbcTemplate jdbc = mock(JdbcTemplate.class);
+    private final CarEventDispatcher dispatcher = mock(CarEventDispatcher.class);
+    private SavedSearchService service;
+
+    @BeforeEach
+    void setUp() {
+        SavedSearch bmw = mock(SavedSearch.class);
+        when(bmw.getId()).thenReturn(7L);
+        when(bmw.getMake()).thenReturn("BMW");
+        // Русский коммент: мок по умолчанию вернул бы 0 для Integer, а null — «без границы»
+        when(bmw.getYearFrom()).thenReturn(null);
+        when(bmw.getYearTo()).thenReturn(null);
+        when(bmw.getPriceFrom()).thenReturn(null);
+        when(bmw.getPriceTo()).thenReturn(null);
+        when(repo.streamAllBy()).thenAnswer(inv -> Stream.of(bmw));
+        when(jdbc.queryForMap(contains("saved_search_cursor"))).thenReturn(Map.of("tx", "100", "event_id", 0L));
+        service = new SavedSearchService(repo, jdbc, dispatcher, new SimpleMeterRegistry(), "https://cdn.example/media");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void liveBatchesBeforeCatchUpNeitherMatchNorMoveTheCursor() {
+        service.onCommitted(batch(1, "200", 1));
+        service.reload();
+        service.onCommitted(batch(2, "201", 2));
+
+        verifyNoInteractions(jdbc);
+
+        doAnswer(inv -> {
+            Consumer<CarEventsCommitted> sink = inv.getArgument(2);
+            sink.accept(batch(1, "200", 1));
+            sink.accept(batch(2, "201", 2));
+            return null;
+        }).when(dispatcher).replay(eq("100"), eq(0L), any());
+        service.catchUp();
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbc, times(2)).batchUpdate(anyString(), rows.capture());
+        assertThat(rows.getAllValues()).extracting(r -> r.get(0)[1]).containsExactly(1L, 2L);
+        verify(jdbc).update(contains("saved_search_cursor"), eq("201"), eq(2L), eq("201"), eq(2L));
+
+        // Русский коммент: после догона живые пачки обрабатываются сразу
+        service.onCommitted(batch(3, "202", 3));
+        verify(jdbc).update(contains("saved_search_cursor"), eq("202"), eq(3L), eq("202"), eq(3L));
+    }
+
+    @Test
+    void batchSkippedDuringReplayTriggersAnotherPass() {
+        service.reload();
+        doAnswer(inv -> {
+            // Русский коммент: живая пачка пришла, пока шёл replay, — её мог не застать его горизонт
+            service.onCommitted(batch(5, "300", 5));
+            return null;
+        }).doNothing().when(dispatcher).replay(anyString(), anyLong(), any());
+
+        service.catchUp();
+
+        verify(dispatcher, times(2)).replay(anyString(), anyLong(), any());
+        service.catchUp();
+        verify(dispatcher, times(2)).replay(anyString(), anyLong(), any());
+    }
+
+    @Test
+    void catchUpWaitsForTheIndex() {
+        service.catchUp();
+
+        verify(dispatcher, never()).replay(anyString(), anyLong(), any());
+    }
+
+    private static CarEventsCommitted batch(long carId, String tx, long eventId) {
+        var car = new CarSummaryDto(carId, "BMW", "X5", 2015, 20_000, "https://img.example/" + carId + ".jpg",
+            null, CREATED, 0);
+        return new CarEventsCommitted(List.of(new CarEventDto("CREATED", carId, null, car)), tx, eventId);
+    }
+}
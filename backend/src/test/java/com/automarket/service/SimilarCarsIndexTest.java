@@ -0,0 +1,76 @@
+package com.automarket.service;
+
+import com.automarket.dto.CarSummaryDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SimilarCarsIndexTest {
+
+    private static final String[] MAKES = {"BMW", "Audi", "Toyota", "Lada"};
+    private static final OffsetDateTime CREATED = OffsetDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    @Test
+    void nearestMatchesExhaustiveScan() {
+        Random rnd = new Random(11);
+        Map<Long, CarSummaryDto> cars = new LinkedHashMap<>();
+        for (long id = 1; id <= 4000; id++) {
+            cars.put(id, randomCar(id, 0, rnd));
+        }
+        var index = SimilarCarsIndex.build(new ArrayList<>(cars.values()));
+        // Русский коммент: обновления переносят машины между клетками и марками
+        for (long id = 1; id <= 4000; id += 7) {
+            cars.put(id, randomCar(id, 1, rnd));
+            index.upsert(cars.get(id));
+        }
+        for (long id = 3; id <= 4000; id += 11) {
+            cars.remove(id);
+            index.remove(id);
+        }
+        assertThat(index.size()).isEqualTo(cars.size());
+
+        List<Long> ids = new ArrayList<>(cars.keySet());
+        for (int i = 0; i < 300; i++) {
+            CarSummaryDto query = cars.get(ids.get(rnd.nextInt(ids.size())));
+            int k = 1 + rnd.nextInt(25);
+
+            List<CarSummaryDto> expected = cars.values().stream()
+                .filter(c -> c.make().equalsIgnoreCase(query.make()) && !c.id().equals(query.id()))
+                .sorted(Comparator.<CarSummaryDto>comparingDouble(c -> SimilarCarsIndex.score(
+                        query.model(), query.year(), query.priceEur(), c.model(), c.year(), c.priceEur()))
+                    .thenComparing(CarSummaryDto::id))
+                .limit(k)
+                .toList();
+
+            assertThat(index.similarTo(query.id(), k)).contains(expected);
+        }
+    }
+
+    @Test
+    void staleUpdatesAndUnknownIdsAreIgnored() {
+        Random rnd = new Random(3);
+        var index = SimilarCarsIndex.build(List.of(randomCar(1, 5, rnd), randomCar(2, 0, rnd)));
+        index.upsert(new CarSummaryDto(1L, "Ford", "Ka", 2001, 500, "u", null, CREATED, 4));
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.similarTo(1, 5).orElseThrow()).noneMatch(c -> c.make().equals("Ford"));
+        assertThat(index.similarTo(99, 5)).isEmpty();
+        assertThat(index.similar("Ford", "Ka", 2001, 500, -1, 5)).isEmpty();
+    }
+
+    private static CarSummaryDto randomCar(long id, long version, Random rnd) {
+        // Русский коммент: узкий диапазон моделей, чтобы одинаковые модели встречались часто
+        return new CarSummaryDto(id, MAKES[rnd.nextInt(MAKES.length)], "Model " + rnd.nextInt(6),
+            1995 + rnd.nextInt(30), rnd.nextInt(90_000), "https://img.example/" + id + ".jpg", null,
+            CREATED, version);
+    }
+}
@@ -0,0 +1,32 @@
+package com.automarket.web;
+
+import com.automarket.service.CarBulkService;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+class CarBulkControllerTest {
+
+    @Test
+    void exportRunsWithItsOwnAsyncTimeout() throws Exception {
+        MockMvc mvc = MockMvcBuilders
+            .standaloneSetup(new CarBulkController(mock(CarBulkService.class), Duration.ofMinutes(45)))
+            // Русский коммент: как spring.mvc.async.request-timeout — экспорт не должен его унаследовать
+            .setAsyncRequestTimeout(30_000)
+            .build();
+
+        MvcResult result = mvc.perform(get("/api/cars/export").param("format", "csv"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofMinutes(45).toMillis());
+    }
+}
@@ -0,0 +1,33 @@
+import { useEffect, useRef } from 'react'
+import type { Car } from '@/types/Car'
+
+export type CarEvent = {
+  type: 'CREATED' | 'UPDATED' | 'DELETED'
+  carId: number
+  previousPriceEur: number | null
+  car: Car
+}
+
+type Filter = { make?: string; priceFrom?: number; priceTo?: number }
+
+// Русский коммент: SSE вместо поллинга; EventSource сам переподключается с Last-Event-ID
+export function useCarEvents(filter: Filter, onEvent: (e: CarEvent) => void, onReset?: () => void) {
+  const handlers = useRef({ onEvent, onReset })
+  handlers.current = { onEvent, onReset }
+
+  useEffect(() => {
+    const params = new URLSearchParams()
+    if (filter.make) params.set('make', filter.make)
+    if (filter.priceFrom != null) params.set('priceFrom', String(filter.priceFrom))
+    if (filter.priceTo != null) params.set('priceTo', String(filter.priceTo))
+
+    const base = import.meta.env.VITE_API_BASE || '/api'
+    const source = new EventSource(`${base}/cars/events?${params}`)
+    const handle = (msg: MessageEvent) => handlers.current.onEvent(JSON.parse(msg.data) as CarEvent)
+    for (const type of ['CREATED', 'UPDATED', 'DELETED']) {
+      source.addEventListener(type, handle)
+    }
+    source.addEventListener('reset', () => handlers.current.onReset?.())
+    return () => source.close()
+  }, [filter.make, filter.priceFrom, filter.priceTo])
+}
@@ -14,6 +14,7 @@ export default function CarDetailsPage() {
   const [car, setCar] = useState<Car | null>(null)
   const [loading, setLoading] = useState(true)
   const [err, setErr] = useState<string | null>(null)
+  const [similar, setSimilar] = useState<Car[]>([])
 
   useEffect(() => {
     let isMounted = true
@@ -34,6 +35,16 @@ export default function CarDetailsPage() {
     return () => { isMounted = false }
   }, [id])
 
+  // Русский коммент: похожие грузим отдельно — ошибка не должна ломать страницу
+  useEffect(() => {
+    let isMounted = true
+    setSimilar([])
+    api.get(`/cars/${id}/similar`, { params: { k: 4 } })
+      .then(res => { if (isMounted) setSimilar(res.data) })
+      .catch(() => {})
+    return () => { isMounted = false }
+  }, [id])
+
   async function handleDelete() {
     if (!confirm('Delete this car?')) return
     await api.delete(`/cars/${id}`)
@@ -106,6 +117,35 @@ export default function CarDetailsPage() {
           )}
         </div>
       </div>
+
+      {similar.length > 0 && (
+        <section className="space-y-3">
+          <h2 className="text-lg font-semibold">Similar cars</h2>
+          <div className="grid grid-cols-2 md:grid-cols-4 gap-4">
+            {similar.map(s => (
+              <Link
+                key={s.id}
+                to={`/cars/${s.id}`}
+                className="overflow-hidden rounded-2xl border bg-white hover:shadow-sm"
+              >
+                <div className="aspect-[16/9] bg-zinc-100">
+                  <img
+                    src={s.thumbnailUrl ?? s.imageUrl}
+                    alt={`${s.make} ${s.model}`}
+                    className="w-full h-full object-cover"
+                  />
+                </div>
+                <div className="p-3">
+                  <div className="font-medium">{s.make} {s.model}</div>
+                  <div className="text-sm text-zinc-600">
+                    {s.year} · € {s.priceEur.toLocaleString('de-AT')}
+                  </div>
+                </div>
+              </Link>
+            ))}
+          </div>
+        </section>
+      )}
     </div>
   )
 }
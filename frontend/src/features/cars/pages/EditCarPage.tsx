@@ -15,6 +15,8 @@ export default function EditCarPage() {
   const [priceEur, setPriceEur] = useState<number>(0)
   const [imageUrl, setImageUrl] = useState('')
   const [description, setDescription] = useState('')
+  const [original, setOriginal] = useState<Car | null>(null)
+  const [etag, setEtag] = useState<string | null>(null)
 
   useEffect(() => {
     (async () => {
@@ -22,6 +24,8 @@ export default function EditCarPage() {
         setErr(null)
         const res = await api.get<Car>(`/cars/${id}`)
         const c = res.data
+        setOriginal(c)
+        setEtag(res.headers['etag'] ?? null)
         setMake(c.make)
         setModel(c.model)
         setYear(c.year)
@@ -40,17 +44,25 @@ export default function EditCarPage() {
     e.preventDefault()
     try {
       setErr(null)
-      await api.put(`/cars/${id}`, {
-        make,
-        model,
-        year: +year,
-        priceEur: +priceEur,
-        imageUrl,
-        description,
-      })
+      // Только изменённые поля (JSON Merge Patch); If-Match защищает от чужих правок
+      const next = { make, model, year: +year, priceEur: +priceEur, imageUrl, description }
+      const patch: Record<string, unknown> = {}
+      for (const [key, value] of Object.entries(next)) {
+        const before = key === 'description' ? (original?.description ?? '') : original?.[key as keyof Car]
+        if (before !== value) patch[key] = value
+      }
+      if (Object.keys(patch).length > 0) {
+        await api.patch(`/cars/${id}`, patch, {
+          headers: { 'Content-Type': 'application/merge-patch+json', ...(etag ? { 'If-Match': etag } : {}) },
+        })
+      }
       navigate(`/cars/${id}`)
     } catch (e: any) {
-      setErr(e?.response?.data || 'Request failed')
+      if (e?.response?.status === 412) {
+        setErr('Das Inserat wurde inzwischen geändert. Bitte neu laden.')
+      } else {
+        setErr(e?.response?.data?.message || e?.response?.data || 'Request failed')
+      }
     }
   }
 
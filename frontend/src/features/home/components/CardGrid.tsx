@@ -24,7 +24,7 @@ export default function CardGrid({ items, onDeleted }: Props) {
           <a href={`/cars/${car.id}`} style={{ textDecoration: 'none', color: 'inherit', display: 'block' }}>
             <div style={{ aspectRatio: '16/9', background: '#eee', overflow: 'hidden' }}>
               <img
-                src={car.imageUrl}
+                src={car.thumbnailUrl ?? car.imageUrl}
                 alt={`${car.make} ${car.model}`}
                 style={{ width: '100%', height: '100%', objectFit: 'cover', display: 'block' }}
               />
@@ -2,6 +2,7 @@ import { useEffect, useState } from 'react'
 import { useSearchParams } from 'react-router-dom'
 import { api } from '@/lib/api'
 import CardGrid from '@/features/home/components/CardGrid'
+import { useCarEvents, type CarEvent } from '@/features/cars/hooks/useCarEvents'
 import type { Car } from '@/types/Car'
 
 type Page<T> = {
@@ -16,17 +17,35 @@ export default function HomePage() {
   const [params, setParams] = useSearchParams()
   const [data, setData] = useState<Page<Car> | null>(null)
   const [q, setQ] = useState(params.get('make') ?? '')
+  const [make, setMake] = useState(q)
 
   async function load() {
     const res = await api.get<Page<Car>>('/cars', {
-      params: { make: q || undefined, page: 0, size: 8, sort: 'createdAt,desc' }
+      params: { make: q || undefined, page: 0, size: 8, sort: 'createdAt,desc', view: 'summary' }
     })
     setData(res.data)
+    setMake(q)
   }
   const heroImages = ['/hero-1.jpg', '/hero-2.jpg', '/hero-3.jpg']
 
   useEffect(() => { load() }, [])
 
+  // Живые обновления: новые сверху, изменённые на месте, удалённые убираем
+  function applyEvent(e: CarEvent) {
+    setData((prev) => {
+      if (!prev) return prev
+      const rest = prev.content.filter((c) => c.id !== e.carId)
+      if (e.type === 'DELETED') {
+        return { ...prev, content: rest, totalElements: prev.totalElements - (rest.length < prev.content.length ? 1 : 0) }
+      }
+      if (e.type === 'CREATED') {
+        return { ...prev, content: [e.car, ...rest].slice(0, prev.size), totalElements: prev.totalElements + 1 }
+      }
+      return { ...prev, content: prev.content.map((c) => (c.id === e.carId ? e.car : c)) }
+    })
+  }
+  useCarEvents({ make: make || undefined }, applyEvent, load)
+
   function applySearch() {
     load()
   }
@@ -130,7 +149,7 @@ export default function HomePage() {
                 <article key={car.id} className="bg-white rounded-2xl shadow-sm border overflow-hidden">
                   <a href={`/cars/${car.id}`} className="block">
                     <div className="aspect-[16/9] bg-zinc-100">
-                      <img src={car.imageUrl} alt={`${car.make} ${car.model}`} className="w-full h-full object-cover" />
+                      <img src={car.thumbnailUrl ?? car.imageUrl} alt={`${car.make} ${car.model}`} className="w-full h-full object-cover" />
                     </div>
                     <div className="p-4">
                       <h3 className="font-semibold text-lg">{car.make} {car.model}</h3>
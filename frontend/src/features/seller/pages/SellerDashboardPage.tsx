@@ -4,21 +4,41 @@ import { api } from '@/lib/api'
 import type { Car } from '@/types/Car'
 import { Link } from 'react-router-dom'
 
-type Page<T> = {
+type Slice<T> = {
   content: T[]
-  totalElements: number
-  totalPages: number
-  size: number
-  number: number
+  hasNext: boolean
+  next: string | null
 }
 
+type SellerStats = {
+  count: number
+  averagePriceEur: number | null
+  minYear: number | null
+  maxYear: number | null
+  newestCreatedAt: string | null
+}
+
+type SortKey = 'created' | 'priceAsc' | 'priceDesc' | 'yearDesc'
+
+const SORT_PARAM: Record<SortKey, string> = {
+  created: 'createdAt,desc',
+  priceAsc: 'priceEur,asc',
+  priceDesc: 'priceEur,desc',
+  yearDesc: 'year,desc',
+}
+
+const PAGE_SIZE = 48
+
 export default function SellerDashboardPage() {
   const { role, uid, email } = useAuth()
   const isSeller = role === 'SELLER' || role === 'ADMIN'
   const [loading, setLoading] = useState(true)
   const [allCars, setAllCars] = useState<Car[]>([])
+  const [next, setNext] = useState<string | null>(null)
+  const [loadingMore, setLoadingMore] = useState(false)
+  const [sellerStats, setSellerStats] = useState<SellerStats | null>(null)
   const [q, setQ] = useState('')
-  const [sort, setSort] = useState<'created' | 'priceAsc' | 'priceDesc' | 'yearDesc'>('created')
+  const [sort, setSort] = useState<SortKey>('created')
   const [tab, setTab] = useState<'inserate' | 'stats' | 'settings'>('inserate')
   const [error, setError] = useState<string | null>(null)
 
@@ -28,19 +48,41 @@ export default function SellerDashboardPage() {
       try {
         setError(null)
         setLoading(true)
-        // Загружаем до 100 объявлений, потом фильтруем по sellerUid
-        const res = await api.get<Page<Car>>('/cars', { params: { page: 0, size: 100, sort: 'createdAt,desc' } })
+        // Только свои объявления, сортировка на сервере (keyset)
+        const res = await api.get<Slice<Car>>('/sellers/me/cars', { params: { size: PAGE_SIZE, sort: SORT_PARAM[sort] } })
         setAllCars(res.data.content || [])
+        setNext(res.data.next)
       } catch (e: any) {
         setError('Fehler beim Laden der Inserate')
       } finally {
         setLoading(false)
       }
     })()
+  }, [isSeller, uid, sort])
+
+  useEffect(() => {
+    if (!isSeller || !uid) return
+    api.get<SellerStats>('/sellers/me/stats')
+      .then(res => setSellerStats(res.data))
+      .catch(() => setSellerStats(null))
   }, [isSeller, uid])
 
+  async function loadMore() {
+    if (!next) return
+    setLoadingMore(true)
+    try {
+      const res = await api.get<Slice<Car>>('/sellers/me/cars', { params: { size: PAGE_SIZE, after: next } })
+      setAllCars(prev => [...prev, ...(res.data.content || [])])
+      setNext(res.data.next)
+    } catch (e: any) {
+      setError('Fehler beim Laden der Inserate')
+    } finally {
+      setLoadingMore(false)
+    }
+  }
+
   const myCars = useMemo(() => {
-    let items = allCars.filter(c => c.sellerUid === uid)
+    let items = allCars
     if (q.trim()) {
       const qq = q.trim().toLowerCase()
       items = items.filter(c =>
@@ -49,27 +91,21 @@ export default function SellerDashboardPage() {
         String(c.year).includes(qq)
       )
     }
-    switch (sort) {
-      case 'priceAsc': items = [...items].sort((a, b) => a.priceEur - b.priceEur); break
-      case 'priceDesc': items = [...items].sort((a, b) => b.priceEur - a.priceEur); break
-      case 'yearDesc': items = [...items].sort((a, b) => b.year - a.year); break
-      default: /* created */ items = [...items].sort((a, b) => (a.createdAt! < b.createdAt! ? 1 : -1))
-    }
     return items
-  }, [allCars, uid, q, sort])
+  }, [allCars, q])
 
-  const stats = useMemo(() => {
-    if (myCars.length === 0) return { total: 0, avgPrice: 0, newest: null as string | null }
-    const total = myCars.length
-    const avgPrice = Math.round(myCars.reduce((sum, c) => sum + c.priceEur, 0) / total)
-    const newest = myCars[0]?.createdAt || null
-    return { total, avgPrice, newest }
-  }, [myCars])
+  const stats = useMemo(() => ({
+    total: sellerStats?.count ?? 0,
+    avgPrice: Math.round(sellerStats?.averagePriceEur ?? 0),
+    newest: sellerStats?.newestCreatedAt ?? null,
+    years: sellerStats?.minYear != null ? `${sellerStats.minYear}–${sellerStats.maxYear}` : '—',
+  }), [sellerStats])
 
   async function handleDelete(id: number) {
     if (!confirm('Inserat löschen?')) return
     await api.delete(`/cars/${id}`)
     setAllCars(prev => prev.filter(c => c.id !== id))
+    api.get<SellerStats>('/sellers/me/stats').then(res => setSellerStats(res.data)).catch(() => {})
   }
 
   if (!isSeller) {
@@ -140,7 +176,7 @@ export default function SellerDashboardPage() {
                   <option value="yearDesc">Baujahr ↓</option>
                 </select>
               </div>
-              <div className="text-sm text-zinc-500">{myCars.length} Ergebnisse</div>
+              <div className="text-sm text-zinc-500">{myCars.length} von {stats.total} Inseraten</div>
             </div>
 
             {/* List */}
@@ -156,7 +192,7 @@ export default function SellerDashboardPage() {
                     <a href={`/cars/${car.id}`} className="block">
                       <div className="aspect-[16/9] bg-zinc-100 overflow-hidden">
                         <img
-                          src={car.imageUrl}
+                          src={car.thumbnailUrl ?? car.imageUrl}
                           alt={`${car.make} ${car.model}`}
                           className="w-full h-full object-cover group-hover:scale-[1.02] transition"
                           loading="lazy"
@@ -195,6 +231,17 @@ export default function SellerDashboardPage() {
                 ))}
               </div>
             )}
+            {next && !loading && (
+              <div className="mt-4 text-center">
+                <button
+                  onClick={loadMore}
+                  disabled={loadingMore}
+                  className="px-4 py-2 rounded-xl border hover:bg-zinc-50 disabled:opacity-50"
+                >
+                  {loadingMore ? 'Laden…' : 'Mehr laden'}
+                </button>
+              </div>
+            )}
           </div>
         )}
 
@@ -204,6 +251,7 @@ export default function SellerDashboardPage() {
             <ul className="space-y-2 text-zinc-700">
               <li>• Gesamt: <b>{stats.total}</b></li>
               <li>• Durchschnittspreis: <b>€ {stats.avgPrice.toLocaleString('de-AT')}</b></li>
+              <li>• Baujahre: <b>{stats.years}</b></li>
               <li>• Neueste Anzeige: <b>{stats.newest ? new Date(stats.newest).toLocaleDateString('de-AT') : '—'}</b></li>
             </ul>
             <p className="mt-4 text-zinc-500">Bald fügen wir Diagramme (z. B. Preisverlauf, Leads) hinzu.</p>
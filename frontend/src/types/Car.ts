@@ -5,6 +5,7 @@ export type Car = {
   year: number
   priceEur: number
   imageUrl: string
+  thumbnailUrl?: string | null
   description?: string
   sellerUid?: string
   createdAt?: string